@@ -0,0 +1,111 @@
+package com.github.jaqat.junit5.extension.retriable;
+
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Whole launcher runs of a single test method, so the retriable annotations can be compared
+ * with a plain {@link Test}, {@link RepeatedTest} and {@link ParameterizedTest}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LauncherBenchmark {
+    
+    @Param({"plainTest", "repeatedTest", "parameterizedTest", "retriablePassing", "retriableFlaky",
+            "retriableAlwaysFailing", "retriableParameterizedPassing", "retriableParameterizedFlaky"})
+    public String test;
+    
+    private Launcher launcher;
+    private LauncherDiscoveryRequest discoveryRequest;
+    
+    @Setup
+    public void setUp() {
+        launcher = LauncherFactory.create();
+        String parameters = test.toLowerCase().contains("parameterized") ? "java.lang.String" : "";
+        discoveryRequest = request().selectors(selectMethod(Tests.class, test, parameters)).build();
+    }
+    
+    @Benchmark
+    public long run() {
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        launcher.execute(discoveryRequest, listener);
+        return listener.getSummary().getTestsSucceededCount();
+    }
+    
+    public static class Tests {
+        
+        // every flaky test fails its first attempt and passes the retry, the benchmark thread is the only caller
+        private static int flakyAttempts;
+        
+        @Test
+        void plainTest() {
+        }
+        
+        @RepeatedTest(1)
+        void repeatedTest() {
+        }
+        
+        @ParameterizedTest
+        @ValueSource(strings = "value")
+        void parameterizedTest(String value) {
+        }
+        
+        @RetriableTest(repeats = 3)
+        void retriablePassing() {
+        }
+        
+        @RetriableTest(repeats = 3)
+        void retriableFlaky() {
+            if (flakyAttempts++ % 2 == 0) {
+                fail("flaky");
+            }
+        }
+        
+        @RetriableTest(repeats = 3)
+        void retriableAlwaysFailing() {
+            fail("failing");
+        }
+        
+        @RetriableParameterizedTest(repeats = 3)
+        @ValueSource(strings = "value")
+        void retriableParameterizedPassing(String value) {
+        }
+        
+        @RetriableParameterizedTest(repeats = 3)
+        @ValueSource(strings = "value")
+        void retriableParameterizedFlaky(String value) {
+            if (flakyAttempts++ % 2 == 0) {
+                fail("flaky");
+            }
+        }
+    }
+}
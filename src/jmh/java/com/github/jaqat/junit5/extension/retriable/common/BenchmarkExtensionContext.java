@@ -0,0 +1,211 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Minimal {@link ExtensionContext} for driving the extensions without a launcher.
+ * Stores look up missing keys in the parent context like the Jupiter engine does and
+ * {@link #close()} closes the stored resources like the end of a test does.
+ */
+public class BenchmarkExtensionContext implements ExtensionContext, AutoCloseable {
+    
+    private final BenchmarkExtensionContext parent;
+    private final String uniqueId;
+    private final Method testMethod;
+    private final Map<Namespace, Map<Object, Object>> stores = new HashMap<>();
+    private Throwable executionException;
+    
+    public BenchmarkExtensionContext(String uniqueId, Method testMethod) {
+        this(null, uniqueId, testMethod);
+    }
+    
+    public BenchmarkExtensionContext(BenchmarkExtensionContext parent, String uniqueId, Method testMethod) {
+        this.parent = parent;
+        this.uniqueId = uniqueId;
+        this.testMethod = testMethod;
+    }
+    
+    public void setExecutionException(Throwable executionException) {
+        this.executionException = executionException;
+    }
+    
+    /**
+     * Evaluate the execution conditions among the extensions in order, like the engine does for an attempt
+     *
+     * @param extensions - extensions of the attempt
+     * @return true if no condition disabled the attempt
+     */
+    public boolean isEnabledBy(Iterable<? extends Extension> extensions) {
+        for (Extension extension : extensions) {
+            if (extension instanceof ExecutionCondition
+                    && ((ExecutionCondition) extension).evaluateExecutionCondition(this).isDisabled()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public Optional<ExtensionContext> getParent() {
+        return Optional.ofNullable(parent);
+    }
+    
+    @Override
+    public ExtensionContext getRoot() {
+        return parent == null ? this : parent.getRoot();
+    }
+    
+    @Override
+    public String getUniqueId() {
+        return uniqueId;
+    }
+    
+    @Override
+    public String getDisplayName() {
+        return testMethod.getName() + "()";
+    }
+    
+    @Override
+    public Set<String> getTags() {
+        return Collections.emptySet();
+    }
+    
+    @Override
+    public Optional<AnnotatedElement> getElement() {
+        return Optional.of(testMethod);
+    }
+    
+    @Override
+    public Optional<Class<?>> getTestClass() {
+        return Optional.of(testMethod.getDeclaringClass());
+    }
+    
+    @Override
+    public Optional<TestInstance.Lifecycle> getTestInstanceLifecycle() {
+        return Optional.of(TestInstance.Lifecycle.PER_METHOD);
+    }
+    
+    @Override
+    public Optional<Object> getTestInstance() {
+        return Optional.empty();
+    }
+    
+    @Override
+    public Optional<Method> getTestMethod() {
+        return Optional.of(testMethod);
+    }
+    
+    @Override
+    public Optional<Throwable> getExecutionException() {
+        return Optional.ofNullable(executionException);
+    }
+    
+    @Override
+    public Optional<String> getConfigurationParameter(String key) {
+        return Optional.empty();
+    }
+    
+    @Override
+    public void publishReportEntry(Map<String, String> map) {
+    }
+    
+    @Override
+    public Store getStore(Namespace namespace) {
+        return new MapStore(namespace);
+    }
+    
+    private Object lookup(Namespace namespace, Object key) {
+        Map<Object, Object> values = stores.get(namespace);
+        Object value = values == null ? null : values.get(key);
+        if (value == null && parent != null) {
+            return parent.lookup(namespace, key);
+        }
+        return value;
+    }
+    
+    /**
+     * Close the resources stored in this context
+     */
+    @Override
+    public void close() throws Exception {
+        List<Object> values = new ArrayList<>();
+        stores.values().forEach(store -> values.addAll(store.values()));
+        stores.clear();
+        for (Object value : values) {
+            if (value instanceof Store.CloseableResource) {
+                try {
+                    ((Store.CloseableResource) value).close();
+                } catch (Throwable throwable) {
+                    throw new IllegalStateException(throwable);
+                }
+            }
+        }
+    }
+    
+    private class MapStore implements Store {
+        
+        private final Namespace namespace;
+        
+        MapStore(Namespace namespace) {
+            this.namespace = namespace;
+        }
+        
+        private Map<Object, Object> values() {
+            return stores.computeIfAbsent(namespace, key -> new HashMap<>());
+        }
+        
+        @Override
+        public Object get(Object key) {
+            return lookup(namespace, key);
+        }
+        
+        @Override
+        public <V> V get(Object key, Class<V> requiredType) {
+            return requiredType.cast(get(key));
+        }
+        
+        @Override
+        public <K, V> Object getOrComputeIfAbsent(K key, Function<K, V> defaultCreator) {
+            Object value = get(key);
+            if (value == null) {
+                value = defaultCreator.apply(key);
+                values().put(key, value);
+            }
+            return value;
+        }
+        
+        @Override
+        public <K, V> V getOrComputeIfAbsent(K key, Function<K, V> defaultCreator, Class<V> requiredType) {
+            return requiredType.cast(getOrComputeIfAbsent(key, defaultCreator));
+        }
+        
+        @Override
+        public void put(Object key, Object value) {
+            values().put(key, value);
+        }
+        
+        @Override
+        public Object remove(Object key) {
+            return values().remove(key);
+        }
+        
+        @Override
+        public <V> V remove(Object key, Class<V> requiredType) {
+            return requiredType.cast(remove(key));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deciding whether an attempt runs: the condition is created and evaluated once per attempt.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepeatExecutionConditionBenchmark {
+    
+    private int currentRepetition = 2;
+    private int successes = 0;
+    private AttemptLedger ledger;
+    
+    @Setup
+    public void setUp() {
+        ledger = new AttemptLedger(3, false);
+        ledger.recordFailure();
+    }
+    
+    @Benchmark
+    public ConditionEvaluationResult sequentialAttempt() {
+        return new RepeatExecutionCondition(currentRepetition, 3, 1, successes, true)
+                .evaluateExecutionCondition(null);
+    }
+    
+    @Benchmark
+    public ConditionEvaluationResult concurrentAttempt() {
+        return new RepeatExecutionCondition(3, 1, ledger).evaluateExecutionCondition(null);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+/**
+ * Outcome of the attempts of a benchmarked test
+ */
+public enum Scenario {
+    
+    PASSING {
+        @Override
+        public boolean fails(int attempt) {
+            return false;
+        }
+    },
+    FLAKY {
+        @Override
+        public boolean fails(int attempt) {
+            return attempt == 1;
+        }
+    },
+    ALWAYS_FAILING {
+        @Override
+        public boolean fails(int attempt) {
+            return true;
+        }
+    };
+    
+    /**
+     * @param attempt - number of the attempt, the first attempt is 1
+     * @return true if the attempt throws
+     */
+    public abstract boolean fails(int attempt);
+}
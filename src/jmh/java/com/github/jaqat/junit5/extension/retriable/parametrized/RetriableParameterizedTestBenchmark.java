@@ -0,0 +1,95 @@
+package com.github.jaqat.junit5.extension.retriable.parametrized;
+
+import com.github.jaqat.junit5.extension.retriable.common.BenchmarkExtensionContext;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+import com.github.jaqat.junit5.extension.retriable.common.Scenario;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work of {@link RetriableParameterizedTestInvocationContext} for all attempts of one argument set:
+ * the invocation iterator, display names, execution conditions and the instance extension callbacks.
+ * The test body itself is not executed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetriableParameterizedTestBenchmark {
+    
+    private static final AssertionError FAILURE = new AssertionError("failed attempt");
+    
+    @Param
+    public Scenario scenario;
+    
+    private Method method;
+    private RetryPolicy policy;
+    private RetriableParameterizedTestMethodContext methodContext;
+    private RetriableParameterizedTestNameFormatter formatter;
+    private BenchmarkExtensionContext template;
+    private final Object[] arguments = {"value", 42};
+    
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = RetriableParameterizedTestBenchmark.class.getDeclaredMethod("parameterized", String.class, int.class);
+        policy = RetryPolicy.forMethod(method);
+        methodContext = new RetriableParameterizedTestMethodContext(method);
+        formatter = new RetriableParameterizedTestNameFormatter(policy.name(), "parameterized(String, int)");
+        BenchmarkExtensionContext root = new BenchmarkExtensionContext("[engine:junit-jupiter]", method);
+        template = new BenchmarkExtensionContext(root, "[test-template:parameterized(String, int)]", method);
+    }
+    
+    @RetriableParameterizedTest(repeats = 3)
+    @ValueSource(strings = "value")
+    void parameterized(String value, int number) {
+    }
+    
+    @Benchmark
+    public int allAttemptsOfOneCase(Blackhole blackhole) throws Throwable {
+        RetriableParameterizedTestInvocationContext invocation = new RetriableParameterizedTestInvocationContext(
+                formatter, methodContext, policy, arguments, finished -> {
+        }).withDisplayNameInvocationIndex(1);
+        int attempts = 0;
+        while (invocation.hasNext()) {
+            invocation.next();
+            attempts++;
+            BenchmarkExtensionContext attempt = new BenchmarkExtensionContext(template, "#" + attempts, method);
+            blackhole.consume(invocation.getDisplayName(attempts));
+            List<Extension> extensions = invocation.getAdditionalExtensions();
+            if (attempt.isEnabledBy(extensions)) {
+                RetriableParametrizedInstanceExtension instanceExtension =
+                        (RetriableParametrizedInstanceExtension) extensions.get(extensions.size() - 1);
+                instanceExtension.beforeTestExecution(attempt);
+                if (scenario.fails(attempts)) {
+                    try {
+                        instanceExtension.handleTestExecutionException(attempt, FAILURE);
+                    } catch (Throwable throwable) {
+                        attempt.setExecutionException(throwable);
+                    }
+                }
+                instanceExtension.afterTestExecution(attempt);
+            }
+            attempt.close();
+        }
+        invocation.release();
+        return attempts;
+    }
+}
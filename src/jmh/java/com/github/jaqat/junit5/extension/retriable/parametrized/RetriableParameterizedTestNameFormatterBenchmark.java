@@ -0,0 +1,45 @@
+package com.github.jaqat.junit5.extension.retriable.parametrized;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Display name of one attempt of a parameterized test, the first attempt or a retry.
+ * {@link #format()} renders a new case, {@link #formatRetry()} reuses the name of the case like the invocation context does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetriableParameterizedTestNameFormatterBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean retry;
+    
+    private final RetriableParameterizedTestNameFormatter formatter = new RetriableParameterizedTestNameFormatter(
+            RetriableParameterizedTest.DEFAULT_DISPLAY_NAME, "parameterized(String, int, int[])");
+    private final Object[] arguments = {"value", 42, new int[]{1, 2, 3}};
+    private final String caseName = formatter.format(7, arguments);
+    
+    @Benchmark
+    public String format() {
+        return formatter.retry(formatter.format(7, arguments), retry, retry ? 2 : 1);
+    }
+    
+    @Benchmark
+    public String formatRetry() {
+        return formatter.retry(caseName, retry, retry ? 2 : 1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.jaqat.junit5.extension.retriable.single;
+
+import com.github.jaqat.junit5.extension.retriable.common.BenchmarkExtensionContext;
+import com.github.jaqat.junit5.extension.retriable.common.Scenario;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Work of {@link RetriableTestExtension} for all attempts of one test: providing the invocations through
+ * the iterator, display names, execution conditions and the callbacks around every attempt.
+ * The test body itself is not executed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetriableTestExtensionBenchmark {
+    
+    private static final AssertionError FAILURE = new AssertionError("failed attempt");
+    
+    @Param
+    public Scenario scenario;
+    
+    private final RetriableTestExtension extension = new RetriableTestExtension();
+    private Method method;
+    private BenchmarkExtensionContext root;
+    
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = RetriableTestExtensionBenchmark.class.getDeclaredMethod("retriable");
+        root = new BenchmarkExtensionContext("[engine:junit-jupiter]", method);
+    }
+    
+    @RetriableTest(repeats = 3)
+    void retriable() {
+    }
+    
+    @Benchmark
+    public int allAttemptsOfOneTest(Blackhole blackhole) throws Throwable {
+        BenchmarkExtensionContext template = new BenchmarkExtensionContext(root, "[method:retriable()]", method);
+        int attempts = 0;
+        if (!template.isEnabledBy(Collections.singletonList(extension))) {
+            return attempts;
+        }
+        try (Stream<TestTemplateInvocationContext> invocations = extension.provideTestTemplateInvocationContexts(template)) {
+            Iterator<TestTemplateInvocationContext> iterator = invocations.iterator();
+            while (iterator.hasNext()) {
+                TestTemplateInvocationContext invocation = iterator.next();
+                attempts++;
+                BenchmarkExtensionContext attempt = new BenchmarkExtensionContext(template, "#" + attempts, method);
+                blackhole.consume(invocation.getDisplayName(attempts));
+                if (attempt.isEnabledBy(invocation.getAdditionalExtensions())) {
+                    extension.beforeTestExecution(attempt);
+                    if (scenario.fails(attempts)) {
+                        try {
+                            extension.handleTestExecutionException(attempt, FAILURE);
+                        } catch (Throwable throwable) {
+                            attempt.setExecutionException(throwable);
+                        }
+                    }
+                    extension.afterTestExecution(attempt);
+                }
+                attempt.close();
+            }
+        }
+        template.close();
+        return attempts;
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.jaqat.junit5.extension.retriable;
+
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeout;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeoutException;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+import org.junit.platform.commons.util.BlacklistedExceptions;
+import org.junit.platform.commons.util.ExceptionUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retries a block of code inside of a test, so a flaky call does not re-run the whole test
+ * together with its lifecycle methods and test instance:
+ * <pre>
+ * Response response = Retriable.run(RetryPolicy.builder(3).exceptions(IOException.class).build(),
+ *         () -&gt; client.call());
+ * </pre>
+ * The block is attempted like a {@link RetriableTest}: an exception that is not one of the policy exceptions
+ * fails right away, otherwise the block is attempted again until {@code minSuccess} attempts passed
+ * or that is no longer reachable within the repeats. The last failure is rethrown with the earlier
+ * failures added as suppressed. Attempts run on the calling thread one after another.
+ */
+public final class Retriable {
+    
+    private static final String ATTEMPTS_KEY = "retriable.block.attempts";
+    private static final String FAILURES_KEY = "retriable.block.failures";
+    private static final String VERDICT_KEY = "retriable.block.verdict";
+    
+    private Retriable() {
+    }
+    
+    /**
+     * @param policy - how the block is retried
+     * @param block  - code to attempt
+     */
+    public static void run(RetryPolicy policy, Executable block) {
+        run(policy, null, block);
+    }
+    
+    /**
+     * @param policy   - how the block is retried
+     * @param reporter - receives the attempts, failures and verdict of the block
+     * @param block    - code to attempt
+     */
+    public static void run(RetryPolicy policy, TestReporter reporter, Executable block) {
+        run(policy, reporter, () -> {
+            block.execute();
+            return null;
+        });
+    }
+    
+    /**
+     * @param policy - how the block is retried
+     * @param block  - code to attempt
+     * @param <T>    - type of the result
+     * @return result of the last passed attempt
+     */
+    public static <T> T run(RetryPolicy policy, ThrowingSupplier<T> block) {
+        return run(policy, null, block);
+    }
+    
+    /**
+     * @param policy   - how the block is retried
+     * @param reporter - receives the attempts, failures and verdict of the block
+     * @param block    - code to attempt
+     * @param <T>      - type of the result
+     * @return result of the last passed attempt
+     */
+    public static <T> T run(RetryPolicy policy, TestReporter reporter, ThrowingSupplier<T> block) {
+        Attempts<T> attempts = runAttempts(policy, block);
+        boolean passed = attempts.successes >= policy.minSuccess();
+        if (reporter != null) {
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put(ATTEMPTS_KEY, String.valueOf(attempts.started));
+            entries.put(FAILURES_KEY, String.valueOf(attempts.failures));
+            entries.put(VERDICT_KEY, passed ? "pass" : "final_fail");
+            reporter.publishEntry(entries);
+        }
+        if (!passed) {
+            attempts.earlierFailures.forEach(attempts.failure::addSuppressed);
+            throw ExceptionUtils.throwAsUncheckedException(attempts.failure);
+        }
+        return attempts.result;
+    }
+    
+    private static <T> Attempts<T> runAttempts(RetryPolicy policy, ThrowingSupplier<T> block) {
+        Attempts<T> attempts = new Attempts<>();
+        while (attempts.successes < policy.minSuccess() && attempts.started < policy.repeats()) {
+            attempts.started++;
+            try {
+                attempts.passed(attempt(policy, block));
+            } catch (Throwable throwable) {
+                BlacklistedExceptions.rethrowIfBlacklisted(throwable);
+                attempts.failed(throwable);
+                if (attempts.isFinal(policy, throwable)) {
+                    break;
+                }
+            }
+        }
+        return attempts;
+    }
+    
+    private static <T> T attempt(RetryPolicy policy, ThrowingSupplier<T> block) {
+        AttemptTimeout timeout = AttemptTimeout.start(policy.attemptTimeout());
+        T result;
+        try {
+            result = block.get();
+        } catch (Throwable throwable) {
+            BlacklistedExceptions.rethrowIfBlacklisted(throwable);
+            throw ExceptionUtils.throwAsUncheckedException(timeout == null ? throwable : timeout.stop(throwable));
+        } finally {
+            if (timeout != null) {
+                timeout.stop();
+            }
+        }
+        AttemptTimeoutException timedOut = timeout == null ? null : timeout.stop();
+        if (timedOut != null) {
+            // the block swallowed the interrupt and returned late, so the attempt failed all the same
+            throw timedOut;
+        }
+        return result;
+    }
+    
+    /**
+     * Tally of the attempts of one block
+     */
+    private static final class Attempts<T> {
+        
+        private final List<Throwable> earlierFailures = new ArrayList<>();
+        private T result;
+        private Throwable failure;
+        private int started;
+        private int successes;
+        private int failures;
+        
+        private void passed(T result) {
+            this.result = result;
+            successes++;
+        }
+        
+        private void failed(Throwable throwable) {
+            if (failure != null) {
+                earlierFailures.add(failure);
+            }
+            failure = throwable;
+            failures++;
+        }
+        
+        private boolean isFinal(RetryPolicy policy, Throwable throwable) {
+            return !policy.isRepeatable(throwable) || failures > policy.repeats() - policy.minSuccess();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Mutable event handed to {@link RetryListener}s; one instance per thread is reused for all events.
+ */
+public final class AttemptEvent {
+    
+    /**
+     * What happens after an attempt
+     */
+    public enum Decision {
+        /**
+         * The attempt failed and the test is retried
+         */
+        RETRY,
+        /**
+         * The test passed
+         */
+        PASS,
+        /**
+         * The test failed and is not retried anymore
+         */
+        FINAL_FAIL
+    }
+    
+    private ExtensionContext context;
+    private int attempt;
+    private int maxAttempts;
+    private long durationNanos;
+    private long failedAttemptsNanos;
+    private Throwable exception;
+    private Decision decision;
+    
+    AttemptEvent() {
+    }
+    
+    AttemptEvent reset(ExtensionContext context, int attempt, int maxAttempts, long durationNanos,
+                       long failedAttemptsNanos, Throwable exception, Decision decision) {
+        this.context = context;
+        this.attempt = attempt;
+        this.maxAttempts = maxAttempts;
+        this.durationNanos = durationNanos;
+        this.failedAttemptsNanos = failedAttemptsNanos;
+        this.exception = exception;
+        this.decision = decision;
+        return this;
+    }
+    
+    /**
+     * @return context of the attempt; its parent is the context of the test template
+     */
+    public ExtensionContext context() {
+        return context;
+    }
+    
+    /**
+     * @return number of the attempt, the first attempt is 1
+     */
+    public int attempt() {
+        return attempt;
+    }
+    
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+    
+    /**
+     * @return duration of the test method and the callbacks around it, 0 for started attempts
+     */
+    public long durationNanos() {
+        return durationNanos;
+    }
+    
+    /**
+     * @return total duration of the failed attempts of the test so far, including this one
+     */
+    public long failedAttemptsNanos() {
+        return failedAttemptsNanos;
+    }
+    
+    /**
+     * @return exception thrown by the attempt, null if it passed or has just started
+     */
+    public Throwable exception() {
+        return exception;
+    }
+    
+    /**
+     * @return class of the exception thrown by the attempt, null if it passed or has just started
+     */
+    public Class<? extends Throwable> exceptionClass() {
+        return exception == null ? null : exception.getClass();
+    }
+    
+    /**
+     * @return decision after the attempt, null for started attempts
+     */
+    public Decision decision() {
+        return decision;
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Outcome counters of the attempts of one retriable test.
+ * <p>
+ * Successful and failed attempts are packed into a single {@code long}, so both counters are updated
+ * by one lock-free CAS and every read returns a consistent pair. A counter saturates at {@link Integer#MAX_VALUE}
+ * instead of carrying into its neighbour. All queries are O(1) and allocation-free.
+ * Optionally the ledger keeps a bitset history where bit {@code n} is set if attempt {@code n} failed.
+ */
+public class AttemptLedger {
+    
+    private static final long SUCCESS = 1L << 32;
+    private static final long FAILURE = 1L;
+    private static final long COUNTER_MASK = 0xFFFF_FFFFL;
+    
+    private final AtomicLong counters = new AtomicLong();
+    private final AtomicLongArray history;
+    private volatile boolean retriesDenied;
+    private final AtomicLong failedNanos = new AtomicLong();
+    
+    /**
+     * @param maxAttempts - upper bound of attempts used to size the history
+     * @param keepHistory - record the outcome of every single attempt
+     */
+    public AttemptLedger(int maxAttempts, boolean keepHistory) {
+        this.history = keepHistory ? new AtomicLongArray((maxAttempts + 63) >>> 6) : null;
+    }
+    
+    public void recordSuccess() {
+        increment(SUCCESS);
+    }
+    
+    public void recordFailure() {
+        long previous = increment(FAILURE);
+        if (history != null && failures(previous) < Integer.MAX_VALUE) {
+            int attempt = successes(previous) + failures(previous);
+            int word = attempt >>> 6;
+            if (word < history.length()) {
+                long bit = 1L << attempt;
+                long current;
+                do {
+                    current = history.get(word);
+                } while (!history.compareAndSet(word, current, current | bit));
+            }
+        }
+    }
+    
+    public int successes() {
+        return successes(counters.get());
+    }
+    
+    public int failures() {
+        return failures(counters.get());
+    }
+    
+    public int attempts() {
+        long snapshot = counters.get();
+        return (int) Math.min(Integer.MAX_VALUE, (long) successes(snapshot) + failures(snapshot));
+    }
+    
+    public boolean hasFailures() {
+        return failures() > 0;
+    }
+    
+    /**
+     * @param nanos - duration of a failed attempt, only recorded while attempts are timed
+     */
+    public void recordFailedTime(long nanos) {
+        failedNanos.addAndGet(nanos);
+    }
+    
+    /**
+     * @return total duration of the timed failed attempts
+     */
+    public long failedNanos() {
+        return failedNanos.get();
+    }
+    
+    /**
+     * No further attempts will be made, e.g. because the {@link RetryBudget} is exhausted
+     */
+    public void denyRetries() {
+        retriesDenied = true;
+    }
+    
+    public boolean retriesDenied() {
+        return retriesDenied;
+    }
+    
+    /**
+     * @param attempt - zero based index of the attempt
+     * @return true if the attempt failed; always false if the history is not kept
+     */
+    public boolean failed(int attempt) {
+        if (history == null || (attempt >>> 6) >= history.length()) {
+            return false;
+        }
+        return (history.get(attempt >>> 6) & (1L << attempt)) != 0;
+    }
+    
+    private long increment(long counter) {
+        long previous;
+        do {
+            previous = counters.get();
+            int value = counter == SUCCESS ? successes(previous) : failures(previous);
+            if (value == Integer.MAX_VALUE) {
+                return previous;
+            }
+        } while (!counters.compareAndSet(previous, previous + counter));
+        return previous;
+    }
+    
+    private static int successes(long counters) {
+        return (int) (counters >>> 32);
+    }
+    
+    private static int failures(long counters) {
+        return (int) (counters & COUNTER_MASK);
+    }
+}
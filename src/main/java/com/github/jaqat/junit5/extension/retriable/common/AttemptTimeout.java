@@ -0,0 +1,119 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watch of one running attempt: once the timeout expires, a thread dump is taken and the thread
+ * of the attempt is interrupted, so a hung attempt ends with an {@link AttemptTimeoutException}
+ * that can be retried like any other failure.
+ * <p>
+ * All watches share one daemon watchdog thread; an attempt that finishes in time only
+ * cancels its scheduled task. The attempt keeps running on its own thread, so an attempt that
+ * ignores interrupts cannot be stopped; once it returns, {@link #stop()} still reports it as timed out.
+ */
+public class AttemptTimeout {
+    
+    private static final int RUNNING = 0;
+    private static final int EXPIRED = 1;
+    private static final int STOPPED = 2;
+    
+    private final Thread thread;
+    private final long timeoutMillis;
+    private final ScheduledFuture<?> task;
+    private int state = RUNNING;
+    private AttemptTimeoutException exception;
+    
+    private AttemptTimeout(long timeoutMillis) {
+        this.thread = Thread.currentThread();
+        this.timeoutMillis = timeoutMillis;
+        this.task = Watchdog.INSTANCE.schedule(this::expire, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Start to watch the attempt running on the current thread
+     *
+     * @param timeoutMillis - timeout of the attempt, see {@link RetryPolicy#attemptTimeout()}
+     * @return watch of the attempt, null if the timeout is disabled
+     */
+    public static AttemptTimeout start(long timeoutMillis) {
+        return timeoutMillis > 0 ? new AttemptTimeout(timeoutMillis) : null;
+    }
+    
+    private synchronized void expire() {
+        if (state != RUNNING) {
+            return;
+        }
+        state = EXPIRED;
+        exception = new AttemptTimeoutException(
+                String.format("Attempt timed out after %d ms on thread [%s]", timeoutMillis, thread.getName()),
+                threadDump());
+        exception.setStackTrace(thread.getStackTrace());
+        thread.interrupt();
+    }
+    
+    /**
+     * Stop watching; has to be called on the thread of the attempt and may be called more than once.
+     * The interrupt of an expired attempt is cleared, so it does not leak into the next test on the thread.
+     *
+     * @return exception describing the expired attempt, null if the attempt finished in time
+     */
+    public synchronized AttemptTimeoutException stop() {
+        if (state == RUNNING) {
+            task.cancel(false);
+        } else if (state == EXPIRED) {
+            Thread.interrupted();
+        }
+        state = STOPPED;
+        return exception;
+    }
+    
+    /**
+     * Stop watching an attempt that failed
+     *
+     * @param failure - exception thrown by the attempt
+     * @return the failure, or an {@link AttemptTimeoutException} with the failure suppressed if the attempt expired
+     */
+    public Throwable stop(Throwable failure) {
+        AttemptTimeoutException timedOut = stop();
+        if (timedOut == null) {
+            return failure;
+        }
+        timedOut.addSuppressed(failure);
+        return timedOut;
+    }
+    
+    private static String threadDump() {
+        StringBuilder dump = new StringBuilder();
+        for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+            Thread thread = entry.getKey();
+            dump.append('"').append(thread.getName()).append('"')
+                    .append(thread.isDaemon() ? " daemon" : "")
+                    .append(" state=").append(thread.getState())
+                    .append(System.lineSeparator());
+            for (StackTraceElement element : entry.getValue()) {
+                dump.append("\tat ").append(element).append(System.lineSeparator());
+            }
+            dump.append(System.lineSeparator());
+        }
+        return dump.toString();
+    }
+    
+    private static final class Watchdog {
+        
+        private static final ScheduledThreadPoolExecutor INSTANCE = newWatchdog();
+        
+        private static ScheduledThreadPoolExecutor newWatchdog() {
+            ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "retriable-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // most attempts finish in time, their tasks should not pile up in the queue
+            watchdog.setRemoveOnCancelPolicy(true);
+            return watchdog;
+        }
+    }
+}
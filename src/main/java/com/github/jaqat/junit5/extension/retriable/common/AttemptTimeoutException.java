@@ -0,0 +1,23 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+/**
+ * Failure of an attempt that ran longer than its {@link RetryPolicy#attemptTimeout()}.
+ * The stack trace is the one of the hung thread at the moment of the timeout;
+ * the exception the interrupted attempt threw afterwards is added as suppressed.
+ */
+public class AttemptTimeoutException extends RuntimeException {
+    
+    private final String threadDump;
+    
+    public AttemptTimeoutException(String message, String threadDump) {
+        super(message);
+        this.threadDump = threadDump;
+    }
+    
+    /**
+     * @return stack traces of all threads at the moment of the timeout
+     */
+    public String threadDump() {
+        return threadDump;
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+
+/**
+ * Tracks the attempts of one retriable test template that have completely finished.
+ * <p>
+ * With {@code junit.jupiter.execution.parallel.enabled=true} Jupiter forks every invocation and asks the
+ * provider for the next one right away, so the retry decision has to wait until the previous attempt is done.
+ * The end of an attempt is signalled by closing a resource that {@link #completionCondition()} puts into the
+ * store of the invocation, which happens even if the attempt was skipped or failed in a lifecycle method.
+ */
+public class AttemptTracker {
+    
+    private static final Namespace NAMESPACE = Namespace.create(AttemptTracker.class);
+    
+    private final Object monitor = new Object();
+    private final Runnable onAttemptFinished;
+    private int finishedAttempts;
+    
+    public AttemptTracker() {
+        this(() -> {
+        });
+    }
+    
+    /**
+     * @param onAttemptFinished - callback invoked on the thread that finished an attempt
+     */
+    public AttemptTracker(Runnable onAttemptFinished) {
+        this.onAttemptFinished = onAttemptFinished;
+    }
+    
+    /**
+     * Condition that has to be registered for every attempt in front of any other condition of the attempt.
+     *
+     * @return condition that never disables the attempt but signals its completion to this tracker
+     */
+    public ExecutionCondition completionCondition() {
+        return this::registerAttempt;
+    }
+    
+    private ConditionEvaluationResult registerAttempt(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), (CloseableResource) this::attemptFinished);
+        return ConditionEvaluationResult.enabled("Attempt is tracked");
+    }
+    
+    private void attemptFinished() {
+        synchronized (monitor) {
+            finishedAttempts++;
+            monitor.notifyAll();
+        }
+        onAttemptFinished.run();
+    }
+    
+    /**
+     * Block until the given number of attempts are finished.
+     * Inside of the Jupiter fork-join pool the pool is allowed to compensate the blocked worker,
+     * so the forked attempt can always be picked up by another thread.
+     *
+     * @param attempts - number of attempts that should be finished
+     */
+    public void awaitFinished(int attempts) {
+        ManagedBlocking.awaitUntil(monitor, () -> finishedAttempts >= attempts);
+    }
+    
+    /**
+     * Block until the given number of attempts are finished or the deadline passed.
+     *
+     * @param attempts      - number of attempts that should be finished
+     * @param deadlineNanos - {@link System#nanoTime()} to give up at
+     * @return true if the attempts are finished
+     */
+    public boolean awaitFinished(int attempts, long deadlineNanos) {
+        return ManagedBlocking.awaitUntil(monitor, () -> finishedAttempts >= attempts, deadlineNanos);
+    }
+    
+    public int finishedAttempts() {
+        synchronized (monitor) {
+            return finishedAttempts;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Delay between a failed attempt and its retry.
+ * Used as the {@code backoff} attribute of the retriable annotations, e.g.
+ * {@code @RetriableTest(repeats = 5, backoff = @Backoff(strategy = Backoff.Strategy.EXPONENTIAL, delay = 100))}.
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Backoff {
+    
+    enum Strategy {
+        /**
+         * Retry right away
+         */
+        NONE,
+        /**
+         * Wait {@link #delay()} before every retry
+         */
+        FIXED,
+        /**
+         * Wait {@link #delay()}, then multiply the delay by {@link #multiplier()} for every next retry
+         */
+        EXPONENTIAL,
+        /**
+         * Wait a random time between {@link #delay()} and three times the previous delay
+         */
+        DECORRELATED_JITTER
+    }
+    
+    /**
+     * Strategy of the delays
+     *
+     * @return strategy, no delay by default
+     */
+    Strategy strategy() default Strategy.NONE;
+    
+    /**
+     * Base delay in milliseconds
+     *
+     * @return delay of the first retry
+     */
+    long delay() default 0;
+    
+    /**
+     * Upper bound of a single wait in milliseconds, also bounds the wait for the system load
+     *
+     * @return maximum delay
+     */
+    long maxDelay() default 60_000;
+    
+    /**
+     * Growth factor of {@link Strategy#EXPONENTIAL}
+     *
+     * @return multiplier
+     */
+    double multiplier() default 2;
+    
+    /**
+     * Load-aware mode: after the delay keep waiting while the system load average is above this value.
+     * Negative values disable the mode, as does a platform that does not report the load average.
+     *
+     * @return load average threshold
+     */
+    double maxLoadAverage() default -1;
+}
@@ -0,0 +1,146 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.platform.commons.util.Preconditions;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Immutable form of {@link Backoff}.
+ * <p>
+ * Delays are measured by one shared daemon scheduler instead of sleeping threads: a retry that is not due yet
+ * either is handed back to its caller by a scheduled callback or, if the caller has nothing else to do,
+ * is awaited through {@link ManagedBlocking}, so Jupiter parallel execution keeps its parallelism.
+ */
+public class BackoffPolicy {
+    
+    public static final BackoffPolicy NONE = new BackoffPolicy(Backoff.Strategy.NONE, 0, 0, 1, -1,
+            BackoffPolicy::systemLoadAverage);
+    
+    private static final long LOAD_POLL_MILLIS = 100;
+    
+    private final Backoff.Strategy strategy;
+    private final long delay;
+    private final long maxDelay;
+    private final double multiplier;
+    private final double maxLoadAverage;
+    private final DoubleSupplier loadAverage;
+    
+    private BackoffPolicy(Backoff.Strategy strategy, long delay, long maxDelay, double multiplier, double maxLoadAverage,
+                          DoubleSupplier loadAverage) {
+        this.strategy = strategy;
+        this.delay = delay;
+        this.maxDelay = maxDelay;
+        this.multiplier = multiplier;
+        this.maxLoadAverage = maxLoadAverage;
+        this.loadAverage = loadAverage;
+    }
+    
+    static BackoffPolicy of(Backoff backoff) {
+        Preconditions.condition(backoff.delay() >= 0, "Backoff delay must not be negative");
+        Preconditions.condition(backoff.maxDelay() >= backoff.delay(), "Backoff maxDelay must not be lower than delay");
+        Preconditions.condition(backoff.multiplier() >= 1, "Backoff multiplier must be higher or equals than 1");
+        if (backoff.strategy() == Backoff.Strategy.NONE && backoff.maxLoadAverage() < 0) {
+            return NONE;
+        }
+        return new BackoffPolicy(backoff.strategy(), backoff.delay(), backoff.maxDelay(), backoff.multiplier(),
+                backoff.maxLoadAverage(), BackoffPolicy::systemLoadAverage);
+    }
+    
+    /**
+     * @param loadAverage - source of the system load average, negative if not available
+     * @return copy of this policy that checks the given load instead of the one of the machine
+     */
+    BackoffPolicy withLoadAverage(DoubleSupplier loadAverage) {
+        return new BackoffPolicy(strategy, delay, maxDelay, multiplier, maxLoadAverage, loadAverage);
+    }
+    
+    public boolean isEnabled() {
+        return this != NONE;
+    }
+    
+    /**
+     * Delay before the given retry
+     *
+     * @param retry         - number of the retry, the first retry is 1
+     * @param previousDelay - delay used before the previous retry, 0 for the first one
+     * @return delay in milliseconds
+     */
+    public long delayMillis(int retry, long previousDelay) {
+        switch (strategy) {
+            case FIXED:
+                return delay;
+            case EXPONENTIAL:
+                return (long) Math.min(maxDelay, delay * Math.pow(multiplier, retry - 1));
+            case DECORRELATED_JITTER:
+                long upper = Math.min(maxDelay, Math.max(delay, previousDelay * 3));
+                return upper <= delay ? delay : ThreadLocalRandom.current().nextLong(delay, upper + 1);
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Run the action once the delay has passed and, in load-aware mode, the system load dropped.
+     * No thread is blocked meanwhile.
+     *
+     * @param delayMillis - delay returned by {@link #delayMillis(int, long)}
+     * @param action      - action to run on the scheduler thread, it should only hand the retry over
+     */
+    public void schedule(long delayMillis, Runnable action) {
+        if (delayMillis <= 0 && !isOverloaded()) {
+            action.run();
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelay);
+        Scheduler.INSTANCE.schedule(() -> runWhenLoadDropped(action, deadline), delayMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Wait for the delay on the current thread, for callers that cannot do anything else meanwhile
+     *
+     * @param delayMillis - delay returned by {@link #delayMillis(int, long)}
+     */
+    public void await(long delayMillis) {
+        CountDownLatch due = new CountDownLatch(1);
+        schedule(delayMillis, due::countDown);
+        ManagedBlocking.await(due);
+    }
+    
+    private void runWhenLoadDropped(Runnable action, long deadline) {
+        if (isOverloaded() && System.nanoTime() < deadline) {
+            Scheduler.INSTANCE.schedule(() -> runWhenLoadDropped(action, deadline), LOAD_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+            action.run();
+        }
+    }
+    
+    private boolean isOverloaded() {
+        if (maxLoadAverage < 0) {
+            return false;
+        }
+        double load = loadAverage.getAsDouble();
+        return load >= 0 && load > maxLoadAverage;
+    }
+    
+    private static double systemLoadAverage() {
+        return Scheduler.OS.getSystemLoadAverage();
+    }
+    
+    private static final class Scheduler {
+        
+        private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+        
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retriable-backoff");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
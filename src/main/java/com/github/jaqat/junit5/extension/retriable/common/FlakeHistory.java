@@ -0,0 +1,367 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+import org.junit.platform.commons.JUnitException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Outcomes of earlier runs of retriable tests, kept in an append-only binary file.
+ * <p>
+ * Configured through JUnit configuration parameters:
+ * <ul>
+ * <li>{@value #FILE_PROPERTY_NAME} - path of the history file; attempts are recorded only if it is set</li>
+ * <li>{@value #ADAPTIVE_PROPERTY_NAME} - {@code true} to pick the repeats of every test from its history</li>
+ * </ul>
+ * The file is a header followed by fixed-size records {@code (long key, int attempts, int failures, long nanos)},
+ * where the key is a 64-bit hash of the unique ID of the test template. Every attempt appends one record;
+ * on load the records are summed up from a memory-mapped view into a primitive open-addressing table and,
+ * once the file holds far more records than tests, it is rewritten with one summed record per test.
+ * <p>
+ * Several forks may share the file: appends, loading and compaction all hold an exclusive lock on a sibling
+ * {@code .lock} file, and every flush opens the file again, so no fork keeps appending to a file that
+ * was replaced by a compaction meanwhile.
+ */
+public class FlakeHistory implements CloseableResource {
+    
+    public static final String FILE_PROPERTY_NAME = "junit.retriable.history.file";
+    public static final String ADAPTIVE_PROPERTY_NAME = "junit.retriable.history.adaptive";
+    
+    private static final FlakeHistory DISABLED = new FlakeHistory();
+    
+    private static final int MAGIC = 0x52544648;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 24;
+    private static final int BUFFER_RECORDS = 2048;
+    
+    /**
+     * Attempts a test needs in the history before its repeats are adapted
+     */
+    private static final int MIN_EVIDENCE = 10;
+    
+    /**
+     * Accepted probability that a test ultimately fails only because it is flaky
+     */
+    private static final double TOLERATED_FLAKE_PROBABILITY = 1e-3;
+    
+    private final Path file;
+    private final boolean adaptive;
+    private final Table table;
+    private final ByteBuffer buffer;
+    
+    private FlakeHistory() {
+        this.file = null;
+        this.adaptive = false;
+        this.table = new Table(0);
+        this.buffer = null;
+    }
+    
+    private FlakeHistory(Path file, boolean adaptive) throws IOException {
+        this.file = file;
+        this.adaptive = adaptive;
+        this.table = load(file);
+        this.buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+    }
+    
+    /**
+     * History of the current run
+     *
+     * @param context - any extension context of the run
+     * @return history shared by all tests of the run
+     */
+    public static FlakeHistory of(ExtensionContext context) {
+        return context.getRoot().getStore(ExtensionContext.Namespace.create(FlakeHistory.class))
+                .getOrComputeIfAbsent(FlakeHistory.class, key -> create(context), FlakeHistory.class);
+    }
+    
+    private static FlakeHistory create(ExtensionContext context) {
+        Optional<String> file = context.getConfigurationParameter(FILE_PROPERTY_NAME);
+        if (!file.isPresent() || file.get().trim().isEmpty()) {
+            return DISABLED;
+        }
+        boolean adaptive = context.getConfigurationParameter(ADAPTIVE_PROPERTY_NAME).map(Boolean::parseBoolean).orElse(false);
+        try {
+            return new FlakeHistory(Paths.get(file.get().trim()), adaptive);
+        } catch (IOException e) {
+            throw new JUnitException("Could not read the flake history " + file.get(), e);
+        }
+    }
+    
+    /**
+     * Key of a test in the history: 64-bit FNV-1a hash of its unique ID
+     *
+     * @param uniqueId - unique ID of the test template
+     * @return key of the test
+     */
+    public static long key(String uniqueId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < uniqueId.length(); i++) {
+            hash = (hash ^ uniqueId.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+    
+    /**
+     * Policy of the test adapted to its history: tests that never failed are not retried,
+     * flaky tests get the repeats their failure rate needs, but never more than the annotation allows.
+     *
+     * @param key    - key of the test
+     * @param policy - policy of the annotation
+     * @return the given policy or a copy with adapted repeats
+     */
+    public RetryPolicy adapt(long key, RetryPolicy policy) {
+        if (!adaptive) {
+            return policy;
+        }
+        int slot = table.find(key);
+        if (slot < 0 || table.attempts[slot] < MIN_EVIDENCE) {
+            return policy;
+        }
+        int repeats;
+        if (table.failures[slot] == 0) {
+            repeats = policy.minSuccess();
+        } else {
+            double failureRate = (double) table.failures[slot] / table.attempts[slot];
+            if (failureRate >= 1) {
+                return policy;
+            }
+            int retries = (int) Math.ceil(Math.log(TOLERATED_FLAKE_PROBABILITY) / Math.log(failureRate));
+            repeats = (int) Math.min(policy.repeats(), (long) policy.minSuccess() + retries - 1);
+        }
+        return repeats == policy.repeats() ? policy : policy.withRepeats(Math.max(repeats, policy.minSuccess()));
+    }
+    
+    /**
+     * Append the outcome of one attempt
+     *
+     * @param key           - key of the test
+     * @param failed        - true if the attempt threw an exception
+     * @param durationNanos - duration of the attempt
+     */
+    public void record(long key, boolean failed, long durationNanos) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.remaining() < RECORD_SIZE) {
+                flush();
+            }
+            buffer.putLong(key).putInt(1).putInt(failed ? 1 : 0).putLong(durationNanos);
+        }
+    }
+    
+    @Override
+    public void close() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (buffer) {
+            flush();
+        }
+    }
+    
+    private void flush() {
+        buffer.flip();
+        try {
+            if (buffer.hasRemaining()) {
+                synchronized (FlakeHistory.class) {
+                    try (FileChannel lock = openLock(file); FileLock ignored = lock.lock();
+                         FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                        if (channel.size() == 0) {
+                            channel.write(header());
+                        }
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+    
+    private static ByteBuffer header() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        return header;
+    }
+    
+    /**
+     * Lock of the history, a sibling file because the history itself is replaced by {@link #compact(Path, Table)}
+     */
+    private static FileChannel openLock(Path file) throws IOException {
+        return FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+    }
+    
+    /**
+     * Read and, if needed, compact the history without letting other forks append in between
+     */
+    private static Table load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new Table(0);
+        }
+        synchronized (FlakeHistory.class) {
+            try (FileChannel lock = openLock(file); FileLock ignored = lock.lock()) {
+                return loadLocked(file);
+            }
+        }
+    }
+    
+    private static Table loadLocked(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new Table(0);
+        }
+        Table table;
+        int records;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return new Table(0);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                throw new JUnitException("Unknown format of the flake history " + file);
+            }
+            records = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+            table = new Table(Math.min(records, 1 << 16));
+            for (int i = 0; i < records; i++) {
+                table.add(mapped.getLong(), mapped.getInt(), mapped.getInt(), mapped.getLong());
+            }
+        }
+        if (records > 2 * table.size + BUFFER_RECORDS) {
+            compact(file, table);
+        }
+        return table;
+    }
+    
+    /**
+     * Replace the file by one summed record per test
+     */
+    private static void compact(Path file, Table table) throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        try (FileChannel channel = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header());
+            ByteBuffer records = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+            for (int slot = 0; slot < table.keys.length; slot++) {
+                if (table.attempts[slot] == 0) {
+                    continue;
+                }
+                if (records.remaining() < RECORD_SIZE) {
+                    records.flip();
+                    while (records.hasRemaining()) {
+                        channel.write(records);
+                    }
+                    records.clear();
+                }
+                records.putLong(table.keys[slot]).putInt(table.attempts[slot]).putInt(table.failures[slot])
+                        .putLong(table.nanos[slot]);
+            }
+            records.flip();
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Open-addressing table of summed records; a slot is used if its attempts are positive
+     */
+    private static final class Table {
+        
+        private long[] keys;
+        private int[] attempts;
+        private int[] failures;
+        private long[] nanos;
+        private int size;
+        
+        Table(int expectedKeys) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedKeys) * 2 - 1) << 1;
+            this.keys = new long[capacity];
+            this.attempts = new int[capacity];
+            this.failures = new int[capacity];
+            this.nanos = new long[capacity];
+        }
+        
+        int find(long key) {
+            int mask = keys.length - 1;
+            for (int slot = mix(key) & mask; attempts[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+        
+        void add(long key, int attemptCount, int failureCount, long durationNanos) {
+            if (attemptCount <= 0) {
+                return;
+            }
+            if (size * 2 >= keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (attempts[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (attempts[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            attempts[slot] = saturatedAdd(attempts[slot], attemptCount);
+            failures[slot] = saturatedAdd(failures[slot], failureCount);
+            nanos[slot] += durationNanos;
+        }
+        
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldAttempts = attempts;
+            int[] oldFailures = failures;
+            long[] oldNanos = nanos;
+            keys = new long[oldKeys.length * 2];
+            attempts = new int[keys.length];
+            failures = new int[keys.length];
+            nanos = new long[keys.length];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldAttempts[slot] != 0) {
+                    add(oldKeys[slot], oldAttempts[slot], oldFailures[slot], oldNanos[slot]);
+                }
+            }
+        }
+        
+        private static int saturatedAdd(int a, int b) {
+            long sum = (long) a + b;
+            return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+        }
+        
+        private static int mix(long key) {
+            int hash = (int) (key ^ (key >>> 32)) * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Hedged (speculative) attempts: further attempts start while earlier ones are still running,
+ * the first attempts that satisfy {@code minSuccess} win and the attempts still running are interrupted.
+ * <p>
+ * Attempts are executed by the Jupiter parallel executor, so hedging needs
+ * {@code junit.jupiter.execution.parallel.enabled=true}; otherwise attempts simply run one after another.
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedge {
+    
+    /**
+     * Latency threshold in milliseconds: once the latest attempt has been running that long,
+     * another attempt is started next to it. Negative values disable the threshold.
+     *
+     * @return threshold of a speculative attempt
+     */
+    long after() default -1;
+    
+    /**
+     * Number of attempts that race right from the start
+     *
+     * @return attempts started at once
+     */
+    int attempts() default 1;
+}
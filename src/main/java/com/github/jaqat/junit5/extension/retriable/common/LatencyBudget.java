@@ -0,0 +1,36 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits of the attempt durations of a latency test, e.g.
+ * {@code @RetriableTest(mode = RetriableTest.Mode.LATENCY, repeats = 200, latency = @LatencyBudget(p99 = 20))}.
+ * Durations are recorded in a {@link LatencyHistogram}; a budget of 0 or lower is not checked.
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface LatencyBudget {
+    
+    /**
+     * @return budget of the median duration
+     */
+    long p50() default 0;
+    
+    /**
+     * @return budget of the 99th percentile of the durations
+     */
+    long p99() default 0;
+    
+    /**
+     * @return budget of the longest duration
+     */
+    long max() default 0;
+    
+    /**
+     * @return unit of the budgets, milliseconds by default
+     */
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
@@ -0,0 +1,85 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of durations in a fixed amount of memory, whatever the number of recorded values.
+ * <p>
+ * Like the buckets of {@link RetryMetrics} the buckets grow in powers of two, but every power of two is split
+ * into linear sub-buckets, so a percentile is off by less than 1/16 of its value. Percentiles are reported
+ * as the upper bound of their bucket, but never above the exact maximum, so a budget check errs on the safe side.
+ */
+public final class LatencyHistogram {
+    
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    /**
+     * Durations below {@link #SUB_BUCKETS} nanoseconds are counted one by one, then every shift adds half of the buckets
+     */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * HALF + SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    
+    /**
+     * @param nanos - duration, negative values are counted as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        max.accumulateAndGet(value, Math::max);
+        count.incrementAndGet();
+    }
+    
+    public long count() {
+        return count.get();
+    }
+    
+    /**
+     * @return longest recorded duration in nanoseconds, 0 if nothing is recorded
+     */
+    public long max() {
+        return max.get();
+    }
+    
+    /**
+     * @param percentile - between 0 and 100
+     * @return the smallest duration in nanoseconds that is not exceeded by the given percentage of the values,
+     * 0 if nothing is recorded
+     */
+    public long percentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBound(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+    
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF + (int) (value >>> shift);
+    }
+    
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - HALF) / HALF;
+        long subBucket = bucket - shift * HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.platform.commons.JUnitException;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Blocking helpers for code that runs on the worker threads of Jupiter parallel execution.
+ * All waits go through {@link ForkJoinPool#managedBlock}, so the pool may start a compensating
+ * worker and invocations forked by the waiting thread are still executed.
+ */
+public final class ManagedBlocking {
+    
+    private ManagedBlocking() {
+    }
+    
+    /**
+     * Wait on the monitor until the condition holds. Whoever changes the condition has to notify the monitor.
+     *
+     * @param monitor   - monitor that guards the condition
+     * @param condition - condition to wait for, evaluated while holding the monitor
+     */
+    public static void awaitUntil(Object monitor, BooleanSupplier condition) {
+        managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                synchronized (monitor) {
+                    while (!condition.getAsBoolean()) {
+                        monitor.wait();
+                    }
+                }
+                return true;
+            }
+            
+            @Override
+            public boolean isReleasable() {
+                synchronized (monitor) {
+                    return condition.getAsBoolean();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Wait on the monitor until the condition holds or the deadline passed.
+     *
+     * @param monitor       - monitor that guards the condition
+     * @param condition     - condition to wait for, evaluated while holding the monitor
+     * @param deadlineNanos - {@link System#nanoTime()} to give up at
+     * @return true if the condition holds
+     */
+    public static boolean awaitUntil(Object monitor, BooleanSupplier condition, long deadlineNanos) {
+        managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                synchronized (monitor) {
+                    long remaining;
+                    while (!condition.getAsBoolean() && (remaining = deadlineNanos - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+                    }
+                }
+                return true;
+            }
+            
+            @Override
+            public boolean isReleasable() {
+                synchronized (monitor) {
+                    return condition.getAsBoolean() || deadlineNanos - System.nanoTime() <= 0;
+                }
+            }
+        });
+        synchronized (monitor) {
+            return condition.getAsBoolean();
+        }
+    }
+    
+    /**
+     * Wait until the latch has counted down.
+     *
+     * @param latch - latch to wait for
+     */
+    public static void await(CountDownLatch latch) {
+        managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                latch.await();
+                return true;
+            }
+            
+            @Override
+            public boolean isReleasable() {
+                return latch.getCount() == 0;
+            }
+        });
+    }
+    
+    /**
+     * Take the next element of the queue, waiting if necessary.
+     *
+     * @param queue - queue to take from
+     * @param <T>   - element type
+     * @return head of the queue
+     */
+    public static <T> T take(BlockingQueue<T> queue) {
+        Object[] element = new Object[1];
+        managedBlock(new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                if (element[0] == null) {
+                    element[0] = queue.take();
+                }
+                return true;
+            }
+            
+            @Override
+            public boolean isReleasable() {
+                return element[0] != null || (element[0] = queue.poll()) != null;
+            }
+        });
+        @SuppressWarnings("unchecked")
+        T head = (T) element[0];
+        return head;
+    }
+    
+    private static void managedBlock(ForkJoinPool.ManagedBlocker blocker) {
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JUnitException("Interrupted while waiting for a retriable attempt", e);
+        }
+    }
+}
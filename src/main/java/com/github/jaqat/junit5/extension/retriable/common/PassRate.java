@@ -0,0 +1,60 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import java.util.Locale;
+
+/**
+ * Observed pass rate of repeated runs with its 95% Wilson score interval,
+ * which stays within [0, 1] and is meaningful for rates close to 0 or 1 and for few runs.
+ */
+public final class PassRate {
+    
+    private static final double Z = 1.959963984540054;
+    
+    private final int passes;
+    private final int runs;
+    private final double lower;
+    private final double upper;
+    
+    public PassRate(int passes, int runs) {
+        this.passes = passes;
+        this.runs = runs;
+        if (runs == 0) {
+            this.lower = 0;
+            this.upper = 1;
+        } else {
+            double rate = (double) passes / runs;
+            double z2 = Z * Z;
+            double denominator = 1 + z2 / runs;
+            double center = (rate + z2 / (2.0 * runs)) / denominator;
+            double halfWidth = Z * Math.sqrt(rate * (1 - rate) / runs + z2 / (4.0 * runs * runs)) / denominator;
+            this.lower = Math.max(0, center - halfWidth);
+            this.upper = Math.min(1, center + halfWidth);
+        }
+    }
+    
+    public int passes() {
+        return passes;
+    }
+    
+    public int runs() {
+        return runs;
+    }
+    
+    public double rate() {
+        return runs == 0 ? 0 : (double) passes / runs;
+    }
+    
+    public double lower() {
+        return lower;
+    }
+    
+    public double upper() {
+        return upper;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d/%d passed, pass rate %.4f (95%% CI %.4f-%.4f)",
+                passes, runs, rate(), lower, upper);
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.commons.util.Preconditions;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Splits retriable tests into two lanes, so retries of known-flaky tests do not hold up the stable ones.
+ * <p>
+ * Configured through JUnit configuration parameters:
+ * <ul>
+ * <li>{@value #LANE_PROPERTY_NAME} - {@code main}: quarantined tests are skipped and the others are not retried;
+ * {@code quarantine}: only quarantined tests run, with their retries. Without the parameter all tests run as usual</li>
+ * <li>{@value #FILE_PROPERTY_NAME} - text file of quarantined tests besides the ones annotated with
+ * {@code quarantined = true}, one {@code fully.qualified.ClassName} or {@code fully.qualified.ClassName#method}
+ * per line; lines starting with {@code #} are comments. A missing file quarantines nothing</li>
+ * <li>{@value #REPEATS_PROPERTY_NAME} - repeats of quarantined tests in the quarantine lane,
+ * the annotation value by default</li>
+ * </ul>
+ * Each lane is a separate launcher run with its own parallelism, see the {@code quarantine} profile of the build.
+ */
+public class Quarantine {
+    
+    public static final String LANE_PROPERTY_NAME = "junit.retriable.quarantine.lane";
+    public static final String FILE_PROPERTY_NAME = "junit.retriable.quarantine.file";
+    public static final String REPEATS_PROPERTY_NAME = "junit.retriable.quarantine.repeats";
+    
+    public enum Lane {
+        ALL, MAIN, QUARANTINE
+    }
+    
+    private static final Quarantine DISABLED = new Quarantine(Lane.ALL, Collections.emptySet(), -1);
+    
+    private final Lane lane;
+    private final Set<String> quarantinedTests;
+    private final int repeats;
+    
+    private Quarantine(Lane lane, Set<String> quarantinedTests, int repeats) {
+        this.lane = lane;
+        this.quarantinedTests = quarantinedTests;
+        this.repeats = repeats;
+    }
+    
+    /**
+     * Quarantine settings of the current run
+     *
+     * @param context - any extension context of the run
+     * @return settings shared by all tests of the run
+     */
+    public static Quarantine of(ExtensionContext context) {
+        return context.getRoot().getStore(ExtensionContext.Namespace.create(Quarantine.class))
+                .getOrComputeIfAbsent(Quarantine.class, key -> create(context), Quarantine.class);
+    }
+    
+    private static Quarantine create(ExtensionContext context) {
+        Optional<String> lane = context.getConfigurationParameter(LANE_PROPERTY_NAME);
+        if (!lane.isPresent()) {
+            return DISABLED;
+        }
+        Lane selected;
+        try {
+            selected = Lane.valueOf(lane.get().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new JUnitException("Configuration error: " + LANE_PROPERTY_NAME
+                    + " must be one of main, quarantine or all but was [" + lane.get() + "]", e);
+        }
+        int repeats = context.getConfigurationParameter(REPEATS_PROPERTY_NAME)
+                .map(Quarantine::parseRepeats).orElse(-1);
+        Preconditions.condition(repeats == -1 || repeats > 0,
+                () -> "Configuration error: " + REPEATS_PROPERTY_NAME + " must be higher than 0");
+        Set<String> quarantinedTests = context.getConfigurationParameter(FILE_PROPERTY_NAME)
+                .map(Quarantine::readFile).orElse(Collections.emptySet());
+        return new Quarantine(selected, quarantinedTests, repeats);
+    }
+    
+    private static int parseRepeats(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new PreconditionViolationException(
+                    "Configuration error: " + REPEATS_PROPERTY_NAME + " must be a number but was [" + value + "]", e);
+        }
+    }
+    
+    private static Set<String> readFile(String file) {
+        Path path = Paths.get(file.trim());
+        if (!Files.exists(path)) {
+            return Collections.emptySet();
+        }
+        try {
+            Set<String> tests = new HashSet<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String test = line.trim();
+                if (!test.isEmpty() && !test.startsWith("#")) {
+                    tests.add(test);
+                }
+            }
+            return tests;
+        } catch (IOException e) {
+            throw new JUnitException("Could not read the quarantine file " + file, e);
+        }
+    }
+    
+    /**
+     * @param method - test method
+     * @param policy - policy of the test method
+     * @return true if the test is quarantined by its annotation or by the quarantine file
+     */
+    public boolean isQuarantined(Method method, RetryPolicy policy) {
+        if (policy.quarantined()) {
+            return true;
+        }
+        if (quarantinedTests.isEmpty()) {
+            return false;
+        }
+        String className = method.getDeclaringClass().getName();
+        return quarantinedTests.contains(className) || quarantinedTests.contains(className + "#" + method.getName());
+    }
+    
+    /**
+     * Decide if the test runs in the current lane
+     *
+     * @param method - test method
+     * @param policy - policy of the test method
+     * @return disabled if the test belongs to the other lane
+     */
+    public ConditionEvaluationResult evaluate(Method method, RetryPolicy policy) {
+        if (lane == Lane.ALL) {
+            return ConditionEvaluationResult.enabled("Quarantine is not used");
+        }
+        boolean quarantined = isQuarantined(method, policy);
+        if (lane == Lane.MAIN && quarantined) {
+            return ConditionEvaluationResult.disabled("Quarantined, the test runs in the quarantine lane");
+        }
+        if (lane == Lane.QUARANTINE && !quarantined) {
+            return ConditionEvaluationResult.disabled("Not quarantined, the test runs in the main lane");
+        }
+        return ConditionEvaluationResult.enabled("The test runs in the " + lane.name().toLowerCase(Locale.ROOT) + " lane");
+    }
+    
+    /**
+     * Retry settings of the test in the current lane: no retries in the main lane,
+     * the configured repeats in the quarantine lane
+     *
+     * @param policy - policy of the test method
+     * @return the given policy or a copy with the repeats of the lane
+     */
+    public RetryPolicy adapt(RetryPolicy policy) {
+        if (lane == Lane.MAIN) {
+            return policy.repeats() == policy.minSuccess() ? policy : policy.withRepeats(policy.minSuccess());
+        }
+        if (lane == Lane.QUARANTINE && repeats > 0 && repeats != policy.repeats()) {
+            return policy.withRepeats(Math.max(repeats, policy.minSuccess()));
+        }
+        return policy;
+    }
+}
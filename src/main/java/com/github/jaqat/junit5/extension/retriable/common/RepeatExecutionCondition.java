@@ -7,6 +7,9 @@ import org.junit.jupiter.api.extension.ExtensionContext;
 /**
  * Implements ExecutionCondition interface.
  * With one method in this interface, we can control of on/off executing test
+ * <p>
+ * Sequential attempts are judged by the counts known when the attempt was created. Attempts that run
+ * concurrently (hedged attempts) are judged by the live {@link AttemptLedger} when they are about to start.
  */
 public class RepeatExecutionCondition implements ExecutionCondition {
     
@@ -15,6 +18,7 @@ public class RepeatExecutionCondition implements ExecutionCondition {
     protected final int successfulTestRepetitionsCount;
     protected final int failedTestRepetitionsCount;
     protected final boolean repeatableExceptionAppeared;
+    private final AttemptLedger ledger;
     
     public RepeatExecutionCondition(int currentRepetition, int totalRepetitions, int minSuccess,
                                     int successfulTestRepetitionsCount, boolean repeatableExceptionAppeared) {
@@ -23,10 +27,35 @@ public class RepeatExecutionCondition implements ExecutionCondition {
         this.successfulTestRepetitionsCount = successfulTestRepetitionsCount;
         this.failedTestRepetitionsCount = currentRepetition - successfulTestRepetitionsCount - 1;
         this.repeatableExceptionAppeared = repeatableExceptionAppeared;
+        this.ledger = null;
+    }
+    
+    /**
+     * Condition for attempts that may run concurrently with other attempts of the same test
+     *
+     * @param totalRepetitions - maximum number of attempts
+     * @param minSuccess       - required successful attempts
+     * @param ledger           - outcomes of the attempts, read when the condition is evaluated
+     */
+    public RepeatExecutionCondition(int totalRepetitions, int minSuccess, AttemptLedger ledger) {
+        this.totalRepetitions = totalRepetitions;
+        this.minSuccess = minSuccess;
+        this.successfulTestRepetitionsCount = 0;
+        this.failedTestRepetitionsCount = 0;
+        this.repeatableExceptionAppeared = true;
+        this.ledger = ledger;
     }
     
     @Override
     public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (ledger != null) {
+            if (ledger.successes() >= minSuccess) {
+                return ConditionEvaluationResult.disabled("Turn off the attempt as another concurrent attempt already passed");
+            } else if (totalRepetitions - ledger.failures() < minSuccess) {
+                return ConditionEvaluationResult.disabled("Turn off the attempt as the test ultimately failed");
+            }
+            return ConditionEvaluationResult.enabled("Repeat the tests");
+        }
         if (testUltimatelyFailed()) {
             return ConditionEvaluationResult.disabled("Turn off the remaining repetitions as the test ultimately failed");
         } else if (testUltimatelyPassed()) {
@@ -0,0 +1,126 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.commons.util.Preconditions;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Retries shared by all retriable tests of one run, so a degraded environment cannot multiply the run time.
+ * <p>
+ * Configured through JUnit configuration parameters:
+ * <ul>
+ * <li>{@value #MAX_RETRIES_PROPERTY_NAME} - maximum number of extra attempts in the run</li>
+ * <li>{@value #RATIO_PROPERTY_NAME} - extra attempts allowed per first attempt, e.g. {@code 0.1}
+ * lets one of ten tests retry once; the allowance grows as first attempts are executed</li>
+ * </ul>
+ * Both limits apply if both are set. The budget is a pair of lock-free counters kept in the root store.
+ */
+public class RetryBudget {
+    
+    public static final String MAX_RETRIES_PROPERTY_NAME = "junit.retriable.budget.max-retries";
+    public static final String RATIO_PROPERTY_NAME = "junit.retriable.budget.ratio";
+    
+    private static final RetryBudget UNLIMITED = new RetryBudget(-1, -1);
+    
+    /**
+     * Ratio tokens are kept in thousandths of a retry
+     */
+    private static final long TOKEN = 1000;
+    
+    private final AtomicLong remainingRetries;
+    private final AtomicLong ratioTokens;
+    private final long tokensPerFirstAttempt;
+    
+    private RetryBudget(long maxRetries, double ratio) {
+        this.remainingRetries = maxRetries < 0 ? null : new AtomicLong(maxRetries);
+        this.tokensPerFirstAttempt = Math.round(ratio * TOKEN);
+        this.ratioTokens = ratio < 0 ? null : new AtomicLong();
+    }
+    
+    /**
+     * Budget of the current run
+     *
+     * @param context - any extension context of the run
+     * @return budget shared by all tests of the run
+     */
+    public static RetryBudget of(ExtensionContext context) {
+        return context.getRoot().getStore(ExtensionContext.Namespace.create(RetryBudget.class))
+                .getOrComputeIfAbsent(RetryBudget.class, key -> create(context), RetryBudget.class);
+    }
+    
+    private static RetryBudget create(ExtensionContext context) {
+        Optional<String> maxRetries = context.getConfigurationParameter(MAX_RETRIES_PROPERTY_NAME);
+        Optional<String> ratio = context.getConfigurationParameter(RATIO_PROPERTY_NAME);
+        if (!maxRetries.isPresent() && !ratio.isPresent()) {
+            return UNLIMITED;
+        }
+        long max = maxRetries.map(value -> parse(MAX_RETRIES_PROPERTY_NAME, value, Long::parseLong)).orElse(-1L);
+        double perAttempt = ratio.map(value -> parse(RATIO_PROPERTY_NAME, value, Double::parseDouble)).orElse(-1d);
+        Preconditions.condition(!maxRetries.isPresent() || max >= 0,
+                () -> "Configuration error: " + MAX_RETRIES_PROPERTY_NAME + " must not be negative");
+        Preconditions.condition(!ratio.isPresent() || perAttempt >= 0,
+                () -> "Configuration error: " + RATIO_PROPERTY_NAME + " must not be negative");
+        return new RetryBudget(max, perAttempt);
+    }
+    
+    private static <T> T parse(String name, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new PreconditionViolationException(
+                    "Configuration error: " + name + " must be a number but was [" + value + "]", e);
+        }
+    }
+    
+    public boolean isLimited() {
+        return this != UNLIMITED;
+    }
+    
+    /**
+     * Earn the allowance of the ratio limit; called once for the first attempt of every test
+     */
+    public void firstAttemptStarted() {
+        if (ratioTokens != null) {
+            ratioTokens.addAndGet(tokensPerFirstAttempt);
+        }
+    }
+    
+    /**
+     * Take one retry from the budget
+     *
+     * @return false if the budget is exhausted and the failure has to be reported right away
+     */
+    public boolean tryAcquireRetry() {
+        if (!isLimited()) {
+            return true;
+        }
+        if (!take(ratioTokens, TOKEN)) {
+            return false;
+        }
+        if (!take(remainingRetries, 1)) {
+            if (ratioTokens != null) {
+                ratioTokens.addAndGet(TOKEN);
+            }
+            return false;
+        }
+        return true;
+    }
+    
+    private static boolean take(AtomicLong counter, long amount) {
+        if (counter == null) {
+            return true;
+        }
+        long current;
+        do {
+            current = counter.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - amount));
+        return true;
+    }
+}
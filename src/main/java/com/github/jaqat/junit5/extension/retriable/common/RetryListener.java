@@ -0,0 +1,40 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+/**
+ * Observer of the attempts of retriable tests.
+ * <p>
+ * Implementations are discovered with {@link java.util.ServiceLoader} from
+ * {@code META-INF/services/com.github.jaqat.junit5.extension.retriable.common.RetryListener} or listed by class name,
+ * comma separated, in the {@value RetryListeners#LISTENERS_PROPERTY_NAME} configuration parameter.
+ * Every implementation needs a no-argument constructor and must be thread-safe, as attempts may run in parallel.
+ * <p>
+ * The event object is reused for the following events of the same thread, so listeners must copy
+ * whatever they want to keep instead of keeping the event.
+ */
+public interface RetryListener {
+    
+    /**
+     * An attempt is about to run the test method
+     *
+     * @param event - attempt number and context of the attempt
+     */
+    default void attemptStarted(AttemptEvent event) {
+    }
+    
+    /**
+     * An attempt has finished
+     *
+     * @param event - duration, exception and {@link AttemptEvent.Decision} of the attempt
+     */
+    default void attemptFinished(AttemptEvent event) {
+    }
+    
+    /**
+     * The test or the argument set of a parameterized test has its verdict, no further attempts follow
+     *
+     * @param event - the last finished attempt with {@link AttemptEvent.Decision#PASS} or
+     *              {@link AttemptEvent.Decision#FINAL_FAIL}
+     */
+    default void testFinished(AttemptEvent event) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * {@link RetryListener}s of the current run. Dispatching reuses one {@link AttemptEvent} per thread,
+ * and without listeners the extensions skip the bookkeeping completely.
+ */
+public class RetryListeners {
+    
+    public static final String LISTENERS_PROPERTY_NAME = "junit.retriable.listeners";
+    
+    private static final ThreadLocal<AttemptEvent> EVENTS = ThreadLocal.withInitial(AttemptEvent::new);
+    
+    private final RetryListener[] listeners;
+    
+    private RetryListeners(RetryListener[] listeners) {
+        this.listeners = listeners;
+    }
+    
+    /**
+     * Listeners of the current run
+     *
+     * @param context - any extension context of the run
+     * @return listeners shared by all tests of the run
+     */
+    public static RetryListeners of(ExtensionContext context) {
+        return context.getRoot().getStore(ExtensionContext.Namespace.create(RetryListeners.class))
+                .getOrComputeIfAbsent(RetryListeners.class, key -> create(context), RetryListeners.class);
+    }
+    
+    private static RetryListeners create(ExtensionContext context) {
+        List<RetryListener> listeners = new ArrayList<>();
+        ServiceLoader.load(RetryListener.class).forEach(listeners::add);
+        RetryMetrics metrics = RetryMetrics.of(context);
+        if (metrics != null) {
+            listeners.add(metrics);
+        }
+        context.getConfigurationParameter(LISTENERS_PROPERTY_NAME).ifPresent(classNames -> {
+            for (String className : classNames.split(",")) {
+                if (!className.trim().isEmpty()) {
+                    listeners.add((RetryListener) ReflectionUtils.newInstance(
+                            ReflectionUtils.loadClass(className.trim()).orElseThrow(() -> new JUnitException(
+                                    "Configuration error: RetryListener " + className.trim() + " not found"))));
+                }
+            }
+        });
+        return new RetryListeners(listeners.toArray(new RetryListener[0]));
+    }
+    
+    public boolean isEnabled() {
+        return listeners.length > 0;
+    }
+    
+    public void attemptStarted(ExtensionContext context, int attempt, int maxAttempts) {
+        AttemptEvent event = EVENTS.get().reset(context, attempt, maxAttempts, 0, 0, null, null);
+        for (RetryListener listener : listeners) {
+            listener.attemptStarted(event);
+        }
+        event.reset(null, 0, 0, 0, 0, null, null);
+    }
+    
+    /**
+     * Report a finished attempt and, if the decision is final, the verdict of the test
+     *
+     * @param context       - context of the attempt
+     * @param attempt       - number of the attempt
+     * @param maxAttempts   - repeats of the test
+     * @param durationNanos - duration of the attempt
+     * @param failedNanos   - total duration of the failed attempts of the test
+     * @param exception     - exception of the attempt, null if it passed
+     * @param decision      - what happens after the attempt
+     * @param testFinished  - true to report the verdict of the test as well
+     */
+    public void attemptFinished(ExtensionContext context, int attempt, int maxAttempts, long durationNanos,
+                                long failedNanos, Throwable exception, AttemptEvent.Decision decision,
+                                boolean testFinished) {
+        AttemptEvent event = EVENTS.get().reset(context, attempt, maxAttempts, durationNanos, failedNanos, exception,
+                decision);
+        for (RetryListener listener : listeners) {
+            listener.attemptFinished(event);
+        }
+        if (testFinished) {
+            for (RetryListener listener : listeners) {
+                listener.testFinished(event);
+            }
+        }
+        event.reset(null, 0, 0, 0, 0, null, null);
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import com.github.jaqat.junit5.extension.retriable.common.AttemptEvent.Decision;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+import org.junit.platform.commons.JUnitException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link RetryListener} that aggregates retry metrics of the run.
+ * <p>
+ * Enabled by the {@value #DIRECTORY_PROPERTY_NAME} configuration parameter. Counters are {@link LongAdder}s and
+ * attempt durations go to a fixed histogram with power-of-two microsecond buckets, so recording an attempt costs
+ * a few uncontended increments. At the end of the run {@value #PROMETHEUS_FILE} and {@value #JSON_FILE} are
+ * written to the directory; every test also publishes its attempts and verdict as report entries.
+ */
+public class RetryMetrics implements RetryListener, CloseableResource {
+    
+    public static final String DIRECTORY_PROPERTY_NAME = "junit.retriable.metrics.dir";
+    public static final String PROMETHEUS_FILE = "retriable-metrics.prom";
+    public static final String JSON_FILE = "retriable-metrics.json";
+    
+    private static final int BUCKETS = 32;
+    private static final int TOP_EXCEPTIONS = 10;
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(RetryMetrics.class);
+    
+    private final Path directory;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder passedTests = new LongAdder();
+    private final LongAdder failedTests = new LongAdder();
+    private final LongAdder flakyTests = new LongAdder();
+    private final LongAdder attemptsOfFinishedTests = new LongAdder();
+    private final LongAdder attemptNanos = new LongAdder();
+    private final LongAdder failedAttemptNanos = new LongAdder();
+    private final LongAdder[] durationBuckets = new LongAdder[BUCKETS + 1];
+    private final ConcurrentMap<Class<? extends Throwable>, LongAdder> failuresByException = new ConcurrentHashMap<>();
+    
+    RetryMetrics(Path directory) {
+        this.directory = directory;
+        for (int i = 0; i < durationBuckets.length; i++) {
+            durationBuckets[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * Metrics of the current run, registered in the root store so they are written when the run ends
+     *
+     * @param context - any extension context of the run
+     * @return metrics of the run or null if they are not enabled
+     */
+    static RetryMetrics of(ExtensionContext context) {
+        return context.getConfigurationParameter(DIRECTORY_PROPERTY_NAME)
+                .filter(directory -> !directory.trim().isEmpty())
+                .map(directory -> context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(RetryMetrics.class,
+                        key -> new RetryMetrics(Paths.get(directory.trim())), RetryMetrics.class))
+                .orElse(null);
+    }
+    
+    @Override
+    public void attemptFinished(AttemptEvent event) {
+        attempts.increment();
+        attemptNanos.add(event.durationNanos());
+        durationBuckets[bucket(event.durationNanos())].increment();
+        if (event.decision() == Decision.RETRY) {
+            retries.increment();
+        }
+        Class<? extends Throwable> exception = event.exceptionClass();
+        if (exception != null) {
+            failedAttemptNanos.add(event.durationNanos());
+            failureCounter(exception).increment();
+        }
+    }
+    
+    private LongAdder failureCounter(Class<? extends Throwable> exception) {
+        LongAdder counter = failuresByException.get(exception);
+        return counter != null ? counter : failuresByException.computeIfAbsent(exception, key -> new LongAdder());
+    }
+    
+    @Override
+    public void testFinished(AttemptEvent event) {
+        attemptsOfFinishedTests.add(event.attempt());
+        String verdict;
+        if (event.decision() == Decision.PASS) {
+            passedTests.increment();
+            if (event.attempt() > 1) {
+                flakyTests.increment();
+            }
+            verdict = "pass";
+        } else {
+            failedTests.increment();
+            verdict = "final_fail";
+        }
+        Map<String, String> entry = new LinkedHashMap<>();
+        entry.put("retriable.attempts", String.valueOf(event.attempt()));
+        entry.put("retriable.verdict", verdict);
+        entry.put("retriable.failedAttemptsMillis",
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(event.failedAttemptsNanos())));
+        event.context().publishReportEntry(entry);
+    }
+    
+    /**
+     * Bucket {@code i} holds durations below {@code 2^i} microseconds, the last one everything above
+     */
+    private static int bucket(long nanos) {
+        long micros = nanos / 1000;
+        return Math.min(BUCKETS, 64 - Long.numberOfLeadingZeros(micros));
+    }
+    
+    private static double upperBoundSeconds(int bucket) {
+        return (1L << bucket) / 1_000_000d;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(PROMETHEUS_FILE), StandardCharsets.UTF_8)) {
+                writePrometheus(writer);
+            }
+            try (Writer writer = Files.newBufferedWriter(directory.resolve(JSON_FILE), StandardCharsets.UTF_8)) {
+                writeJson(writer);
+            }
+        } catch (IOException e) {
+            throw new JUnitException("Could not write retry metrics to " + directory, e);
+        }
+    }
+    
+    private void writePrometheus(Writer writer) throws IOException {
+        counter(writer, "retriable_attempts_total", "Finished attempts of retriable tests", attempts.sum());
+        counter(writer, "retriable_retries_total", "Failed attempts followed by a retry", retries.sum());
+        writer.write("# HELP retriable_tests_total Retriable tests and argument sets by verdict\n");
+        writer.write("# TYPE retriable_tests_total counter\n");
+        writer.write("retriable_tests_total{verdict=\"pass\"} " + passedTests.sum() + "\n");
+        writer.write("retriable_tests_total{verdict=\"final_fail\"} " + failedTests.sum() + "\n");
+        counter(writer, "retriable_flaky_tests_total", "Tests that passed after a retry", flakyTests.sum());
+        counter(writer, "retriable_test_attempts_total", "Attempts of tests with a verdict",
+                attemptsOfFinishedTests.sum());
+        writer.write("# HELP retriable_failed_attempt_seconds_total Time spent in failed attempts\n");
+        writer.write("# TYPE retriable_failed_attempt_seconds_total counter\n");
+        writer.write("retriable_failed_attempt_seconds_total " + seconds(failedAttemptNanos.sum()) + "\n");
+        
+        writer.write("# HELP retriable_attempt_duration_seconds Duration of attempts\n");
+        writer.write("# TYPE retriable_attempt_duration_seconds histogram\n");
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            cumulative += durationBuckets[bucket].sum();
+            writer.write("retriable_attempt_duration_seconds_bucket{le=\"" + upperBoundSeconds(bucket) + "\"} "
+                    + cumulative + "\n");
+        }
+        cumulative += durationBuckets[BUCKETS].sum();
+        writer.write("retriable_attempt_duration_seconds_bucket{le=\"+Inf\"} " + cumulative + "\n");
+        writer.write("retriable_attempt_duration_seconds_sum " + seconds(attemptNanos.sum()) + "\n");
+        writer.write("retriable_attempt_duration_seconds_count " + cumulative + "\n");
+        
+        writer.write("# HELP retriable_failures_total Failed attempts by exception type, top " + TOP_EXCEPTIONS + "\n");
+        writer.write("# TYPE retriable_failures_total counter\n");
+        for (Map.Entry<String, Long> failure : topExceptions()) {
+            writer.write("retriable_failures_total{exception=\"" + failure.getKey() + "\"} " + failure.getValue() + "\n");
+        }
+    }
+    
+    private static void counter(Writer writer, String name, String help, long value) throws IOException {
+        writer.write("# HELP " + name + " " + help + "\n");
+        writer.write("# TYPE " + name + " counter\n");
+        writer.write(name + " " + value + "\n");
+    }
+    
+    private void writeJson(Writer writer) throws IOException {
+        writer.write("{\n");
+        writer.write("  \"attempts\": " + attempts.sum() + ",\n");
+        writer.write("  \"retries\": " + retries.sum() + ",\n");
+        writer.write("  \"passedTests\": " + passedTests.sum() + ",\n");
+        writer.write("  \"failedTests\": " + failedTests.sum() + ",\n");
+        writer.write("  \"flakyTests\": " + flakyTests.sum() + ",\n");
+        writer.write("  \"testAttempts\": " + attemptsOfFinishedTests.sum() + ",\n");
+        writer.write("  \"attemptSeconds\": " + seconds(attemptNanos.sum()) + ",\n");
+        writer.write("  \"failedAttemptSeconds\": " + seconds(failedAttemptNanos.sum()) + ",\n");
+        writer.write("  \"attemptDurationBuckets\": [");
+        for (int bucket = 0; bucket <= BUCKETS; bucket++) {
+            writer.write((bucket == 0 ? "" : ", ") + "{\"le\": "
+                    + (bucket == BUCKETS ? "null" : String.valueOf(upperBoundSeconds(bucket)))
+                    + ", \"count\": " + durationBuckets[bucket].sum() + "}");
+        }
+        writer.write("],\n");
+        writer.write("  \"topExceptions\": [");
+        List<Map.Entry<String, Long>> topExceptions = topExceptions();
+        for (int i = 0; i < topExceptions.size(); i++) {
+            writer.write((i == 0 ? "" : ", ") + "{\"exception\": \"" + topExceptions.get(i).getKey()
+                    + "\", \"failures\": " + topExceptions.get(i).getValue() + "}");
+        }
+        writer.write("]\n");
+        writer.write("}\n");
+    }
+    
+    /**
+     * Class names contain no characters that need escaping in Prometheus labels or JSON strings
+     */
+    private List<Map.Entry<String, Long>> topExceptions() {
+        List<Map.Entry<String, Long>> failures = new ArrayList<>();
+        failuresByException.forEach((type, count) -> failures.add(
+                new AbstractMap.SimpleImmutableEntry<>(type.getName(), count.sum())));
+        failures.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return failures.subList(0, Math.min(TOP_EXCEPTIONS, failures.size()));
+    }
+    
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000d;
+    }
+}
@@ -0,0 +1,424 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableException;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+import org.opentest4j.TestAbortedException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
+
+/**
+ * Immutable retry settings of one test method, read from {@link RetriableTest} or {@link RetriableParameterizedTest},
+ * or of a block of code, built with {@link #builder(int)}.
+ * <p>
+ * Policies are cached per declaring class, so annotations are looked up and validated once per method
+ * instead of once per attempt.
+ */
+public class RetryPolicy {
+    
+    private static final ClassValue<ConcurrentMap<Method, RetryPolicy>> POLICIES =
+            new ClassValue<ConcurrentMap<Method, RetryPolicy>>() {
+                @Override
+                protected ConcurrentMap<Method, RetryPolicy> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+    
+    private static final ClassValue<Optional<RetryPolicy>> CLASS_POLICIES =
+            new ClassValue<Optional<RetryPolicy>>() {
+                @Override
+                protected Optional<RetryPolicy> computeValue(Class<?> type) {
+                    return findAnnotation(type, RetriableTest.class).map(test -> createForClass(type, test));
+                }
+            };
+    
+    private final int repeats;
+    private final int minSuccess;
+    private final int concurrency;
+    private final String name;
+    private final BackoffPolicy backoff;
+    private final long hedgeAfter;
+    private final int hedgeAttempts;
+    private final boolean quarantined;
+    private final long attemptTimeout;
+    private final boolean reuseInstance;
+    private final RetriableTest.Mode mode;
+    private final double requiredPassRate;
+    private final long latencyP50;
+    private final long latencyP99;
+    private final long latencyMax;
+    private final int warmup;
+    private final List<Class<? extends Throwable>> repeatableExceptions;
+    private final ClassValue<Boolean> repeatable;
+    
+    private RetryPolicy(RetryPolicy policy, int repeats) {
+        this.repeats = repeats;
+        this.minSuccess = policy.minSuccess;
+        this.concurrency = policy.concurrency;
+        this.name = policy.name;
+        this.backoff = policy.backoff;
+        this.hedgeAfter = policy.hedgeAfter;
+        this.hedgeAttempts = policy.hedgeAttempts;
+        this.quarantined = policy.quarantined;
+        this.attemptTimeout = policy.attemptTimeout;
+        this.reuseInstance = policy.reuseInstance;
+        this.mode = policy.mode;
+        this.requiredPassRate = policy.requiredPassRate;
+        this.latencyP50 = policy.latencyP50;
+        this.latencyP99 = policy.latencyP99;
+        this.latencyMax = policy.latencyMax;
+        this.warmup = policy.warmup;
+        this.repeatableExceptions = policy.repeatableExceptions;
+        this.repeatable = policy.repeatable;
+    }
+    
+    private RetryPolicy(int repeats, int minSuccess, int concurrency, String name, BackoffPolicy backoff,
+                        Hedge hedge, boolean quarantined, long attemptTimeout, boolean reuseInstance,
+                        RetriableTest.Mode mode, double requiredPassRate, LatencyBudget latency, int warmup,
+                        List<Class<? extends Throwable>> exceptions) {
+        this.repeats = repeats;
+        this.minSuccess = minSuccess;
+        this.concurrency = concurrency;
+        this.name = name;
+        this.backoff = backoff;
+        this.hedgeAfter = hedge == null ? -1 : hedge.after();
+        this.hedgeAttempts = hedge == null ? 1 : hedge.attempts();
+        this.quarantined = quarantined;
+        this.attemptTimeout = attemptTimeout;
+        this.reuseInstance = reuseInstance;
+        this.mode = mode;
+        this.requiredPassRate = requiredPassRate;
+        this.latencyP50 = latency == null ? 0 : latency.unit().toNanos(latency.p50());
+        this.latencyP99 = latency == null ? 0 : latency.unit().toNanos(latency.p99());
+        this.latencyMax = latency == null ? 0 : latency.unit().toNanos(latency.max());
+        this.warmup = warmup;
+        List<Class<? extends Throwable>> repeatableExceptions = new ArrayList<>(exceptions);
+        repeatableExceptions.add(TestAbortedException.class);
+        repeatableExceptions.add(AttemptTimeoutException.class);
+        this.repeatableExceptions = Collections.unmodifiableList(repeatableExceptions);
+        this.repeatable = new ClassValue<Boolean>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                for (Class<? extends Throwable> exception : RetryPolicy.this.repeatableExceptions) {
+                    if (exception.isAssignableFrom(type)) {
+                        return Boolean.TRUE;
+                    }
+                }
+                return Boolean.FALSE;
+            }
+        };
+    }
+    
+    /**
+     * Policy of the test method
+     *
+     * @param method - method annotated with {@link RetriableTest} or {@link RetriableParameterizedTest}
+     * @return cached policy of the method
+     */
+    public static RetryPolicy forMethod(Method method) {
+        return POLICIES.get(method.getDeclaringClass()).computeIfAbsent(method, RetryPolicy::create);
+    }
+    
+    /**
+     * Policy of the {@code @Test} methods of a class annotated with {@link RetriableTest};
+     * their attempts are always retried in place, see {@link RetriableTest#reuseInstance()}
+     *
+     * @param testClass - class of the test
+     * @return cached policy of the class, empty if the class is not annotated
+     */
+    public static Optional<RetryPolicy> forClass(Class<?> testClass) {
+        return CLASS_POLICIES.get(testClass);
+    }
+    
+    private static RetryPolicy createForClass(Class<?> testClass, RetriableTest test) {
+        String name = Preconditions.notBlank(test.name().trim(), () -> String.format(
+                "Configuration error: @RetriableTest on class [%s] must be declared with a non-empty name.",
+                testClass.getName()));
+        Preconditions.condition(test.warmup() == 0,
+                "Configuration error: warm-up attempts need @RetriableTest on the test method, not on its class.");
+        // attempts of a class-level policy are retried in place, which rules out the modes running attempts side by side
+        Preconditions.condition(test.mode() == RetriableTest.Mode.RETRY, () -> String.format(
+                "Configuration error: @RetriableTest(mode = %s) on class [%s] is not supported, "
+                        + "declare it on the test method instead.", test.mode(), testClass.getName()));
+        Preconditions.condition(test.hedge().after() < 0 && test.hedge().attempts() == 1, () -> String.format(
+                "Configuration error: @RetriableTest(hedge = ...) on class [%s] is not supported, "
+                        + "declare it on the test method instead.", testClass.getName()));
+        return validated(new RetryPolicy(test.repeats(), test.minSuccess(), 1, name,
+                BackoffPolicy.of(test.backoff()), test.hedge(), test.quarantined(), test.attemptTimeout(),
+                true, test.mode(), test.requiredPassRate(), test.latency(), 0, Arrays.asList(test.exceptions())));
+    }
+    
+    private static RetryPolicy create(Method method) {
+        Optional<RetriableTest> retriableTest = findAnnotation(method, RetriableTest.class);
+        if (retriableTest.isPresent()) {
+            RetriableTest test = retriableTest.get();
+            String name = Preconditions.notBlank(test.name().trim(),
+                    () -> "Configuration error: @RetriableTest must be declared with a non-empty name.");
+            Preconditions.condition(!test.reuseInstance() || method.getParameterCount() == 0, () -> String.format(
+                    "Configuration error: @RetriableTest(reuseInstance = true) method [%s] must not declare parameters.",
+                    method.toGenericString()));
+            return validated(new RetryPolicy(test.repeats(), test.minSuccess(), 1, name,
+                    BackoffPolicy.of(test.backoff()), test.hedge(), test.quarantined(), test.attemptTimeout(),
+                    test.reuseInstance(), test.mode(), test.requiredPassRate(), test.latency(), test.warmup(),
+                    Arrays.asList(test.exceptions())));
+        }
+        Optional<RetriableParameterizedTest> retriableParameterizedTest = findAnnotation(method, RetriableParameterizedTest.class);
+        if (retriableParameterizedTest.isPresent()) {
+            RetriableParameterizedTest test = retriableParameterizedTest.get();
+            String name = Preconditions.notBlank(test.name().trim(),
+                    () -> String.format(
+                            "Configuration error: @RetriableParameterizedTest on method [%s] must be declared with a non-empty name.",
+                            method));
+            return validated(new RetryPolicy(test.repeats(), 1, test.concurrency(), name,
+                    BackoffPolicy.of(test.backoff()), null, test.quarantined(), test.attemptTimeout(), false,
+                    RetriableTest.Mode.RETRY, 1, null, 0, Arrays.asList(test.exceptions())));
+        }
+        throw new JUnitException(String.format("Method [%s] is annotated neither with @RetriableTest "
+                + "nor with @RetriableParameterizedTest", method.toGenericString()));
+    }
+    
+    /**
+     * Builder of a policy for {@code Retriable} blocks
+     *
+     * @param repeats - total number of attempts
+     * @return builder with the defaults of {@link RetriableTest}
+     */
+    public static Builder builder(int repeats) {
+        return new Builder(repeats);
+    }
+    
+    private static RetryPolicy validated(RetryPolicy policy) {
+        Preconditions.condition(policy.repeats > 0, "Total repeats must be higher than 0");
+        Preconditions.condition(policy.minSuccess >= 1, "Total minimum success must be higher or equals than 1");
+        Preconditions.condition(policy.warmup >= 0, "Warm-up attempts must not be negative");
+        Preconditions.condition(policy.concurrency >= 1, "Concurrency must be higher or equals than 1");
+        Preconditions.condition(policy.hedgeAttempts >= 1, "Hedged attempts must be higher or equals than 1");
+        Preconditions.condition(!policy.reuseInstance || !policy.isHedged(), "Hedged attempts cannot reuse the test instance");
+        Preconditions.condition(policy.requiredPassRate >= 0 && policy.requiredPassRate <= 1,
+                "Required pass rate must be between 0 and 1");
+        Preconditions.condition(!policy.isStability() || !policy.reuseInstance && !policy.isHedged(),
+                "Stability runs can neither reuse the test instance nor be hedged");
+        Preconditions.condition(!policy.isLatency() || !policy.reuseInstance && !policy.isHedged(),
+                "Latency runs can neither reuse the test instance nor be hedged");
+        Preconditions.condition(policy.latencyP50 >= 0 && policy.latencyP99 >= 0 && policy.latencyMax >= 0,
+                "Latency budgets must not be negative");
+        return policy;
+    }
+    
+    /**
+     * @param repeats - total repeats, not lower than {@link #minSuccess()}
+     * @return copy of this policy with other repeats
+     */
+    public RetryPolicy withRepeats(int repeats) {
+        Preconditions.condition(repeats >= minSuccess, "Total repeats must not be lower than minimum success");
+        return new RetryPolicy(this, repeats);
+    }
+    
+    public int repeats() {
+        return repeats;
+    }
+    
+    public int minSuccess() {
+        return minSuccess;
+    }
+    
+    /**
+     * @return attempts that run ahead of the {@link #repeats()} and do not count, see {@link RetriableTest#warmup()}
+     */
+    public int warmup() {
+        return warmup;
+    }
+    
+    /**
+     * @return maximum number of argument sets running at the same time
+     */
+    public int concurrency() {
+        return concurrency;
+    }
+    
+    /**
+     * @return trimmed display name pattern
+     */
+    public String name() {
+        return name;
+    }
+    
+    /**
+     * @return delays between failed attempts and their retries
+     */
+    public BackoffPolicy backoff() {
+        return backoff;
+    }
+    
+    /**
+     * @return true if attempts of the test may run concurrently, see {@link Hedge}
+     */
+    public boolean isHedged() {
+        return hedgeAfter >= 0 || hedgeAttempts > 1;
+    }
+    
+    /**
+     * @return latency threshold of a speculative attempt in milliseconds, negative if disabled
+     */
+    public long hedgeAfter() {
+        return hedgeAfter;
+    }
+    
+    /**
+     * @return number of attempts racing from the start
+     */
+    public int hedgeAttempts() {
+        return hedgeAttempts;
+    }
+    
+    /**
+     * @return true if the test is marked as known-flaky, see {@link Quarantine}
+     */
+    public boolean quarantined() {
+        return quarantined;
+    }
+    
+    /**
+     * @return timeout of one attempt in milliseconds, 0 or negative if attempts are not watched, see {@link AttemptTimeout}
+     */
+    public long attemptTimeout() {
+        return attemptTimeout;
+    }
+    
+    /**
+     * @return true if failed attempts are retried in place on the same test instance, see {@link RetriableTest#reuseInstance()}
+     */
+    public boolean reuseInstance() {
+        return reuseInstance;
+    }
+    
+    /**
+     * @return true if all repeats run and the test is judged by its pass rate, see {@link RetriableTest.Mode#STABILITY}
+     */
+    public boolean isStability() {
+        return mode == RetriableTest.Mode.STABILITY;
+    }
+    
+    /**
+     * @return pass rate a stability run needs
+     */
+    public double requiredPassRate() {
+        return requiredPassRate;
+    }
+    
+    /**
+     * @return true if all repeats run one after another and the test is judged by their durations,
+     * see {@link RetriableTest.Mode#LATENCY}
+     */
+    public boolean isLatency() {
+        return mode == RetriableTest.Mode.LATENCY;
+    }
+    
+    /**
+     * @return budget of the median attempt duration in nanoseconds, 0 if not checked, see {@link LatencyBudget}
+     */
+    public long latencyP50() {
+        return latencyP50;
+    }
+    
+    /**
+     * @return budget of the 99th percentile of the attempt durations in nanoseconds, 0 if not checked
+     */
+    public long latencyP99() {
+        return latencyP99;
+    }
+    
+    /**
+     * @return budget of the longest attempt in nanoseconds, 0 if not checked
+     */
+    public long latencyMax() {
+        return latencyMax;
+    }
+    
+    /**
+     * @return configured exceptions followed by {@link TestAbortedException} and {@link AttemptTimeoutException}
+     */
+    public List<Class<? extends Throwable>> repeatableExceptions() {
+        return repeatableExceptions;
+    }
+    
+    /**
+     * The verdict is computed once per thrown class, so the check neither allocates
+     * nor depends on the number of configured exceptions.
+     *
+     * @param exception - exception thrown by an attempt
+     * @return true if the exception is one of {@link #repeatableExceptions()} or a subclass of one
+     */
+    public boolean isRepeatable(Throwable exception) {
+        return repeatable.get(exception.getClass());
+    }
+    
+    /**
+     * @param exception - exception of a finished attempt, null if it passed
+     * @return true if the attempt counts as failed: it threw a repeatable exception other than {@link RetriableException}
+     */
+    public boolean isFailure(Throwable exception) {
+        return exception != null && !(exception instanceof RetriableException) && isRepeatable(exception);
+    }
+    
+    /**
+     * Builder of a policy that is not read from an annotation
+     */
+    public static class Builder {
+        
+        private final int repeats;
+        private int minSuccess = 1;
+        private long attemptTimeout = 0;
+        private List<Class<? extends Throwable>> exceptions = Collections.singletonList(Throwable.class);
+        
+        private Builder(int repeats) {
+            this.repeats = repeats;
+        }
+        
+        /**
+         * @param minSuccess - attempts that have to pass, see {@link RetriableTest#minSuccess()}
+         * @return this builder
+         */
+        public Builder minSuccess(int minSuccess) {
+            this.minSuccess = minSuccess;
+            return this;
+        }
+        
+        /**
+         * @param exceptions - exceptions that are retried, see {@link RetriableTest#exceptions()}
+         * @return this builder
+         */
+        @SafeVarargs
+        public final Builder exceptions(Class<? extends Throwable>... exceptions) {
+            this.exceptions = new ArrayList<>(Arrays.asList(exceptions));
+            return this;
+        }
+        
+        /**
+         * @param attemptTimeout - timeout of every attempt in milliseconds, see {@link RetriableTest#attemptTimeout()}
+         * @return this builder
+         */
+        public Builder attemptTimeout(long attemptTimeout) {
+            this.attemptTimeout = attemptTimeout;
+            return this;
+        }
+        
+        public RetryPolicy build() {
+            Preconditions.condition(minSuccess <= repeats, "Total repeats must not be lower than minimum success");
+            return validated(new RetryPolicy(repeats, minSuccess, 1, RetriableTest.DEFAULT_DISPLAY_NAME,
+                    BackoffPolicy.NONE, null, false, attemptTimeout, false, RetriableTest.Mode.RETRY, 1, null, 0,
+                    exceptions));
+        }
+    }
+}
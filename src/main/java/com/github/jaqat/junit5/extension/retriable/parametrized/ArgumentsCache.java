@@ -0,0 +1,379 @@
+package com.github.jaqat.junit5.extension.retriable.parametrized;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.commons.util.Preconditions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.stream.StreamSupport.stream;
+import static org.junit.platform.commons.util.AnnotationUtils.isAnnotated;
+
+/**
+ * On-disk cache of the argument sets of a {@link RetriableParameterizedTest} annotated with {@link CachedArguments}.
+ * <p>
+ * Configured through the {@value #DIRECTORY_PROPERTY_NAME} configuration parameter, {@value #DEFAULT_DIRECTORY}
+ * by default. Every provider of the method has a file named after the SHA-256 of its key: a header followed by
+ * the argument sets written with Java serialization into a deflated stream and terminated by {@code null}.
+ * <p>
+ * On a miss the argument sets are written while they are handed to the tests, so the provider still runs only once;
+ * the file replaces the cached one only after the provider is exhausted. On a hit the argument sets are streamed
+ * back one by one, so neither path keeps all of them in memory.
+ */
+public class ArgumentsCache {
+    
+    public static final String DIRECTORY_PROPERTY_NAME = "junit.retriable.arguments.cache.dir";
+    public static final String DEFAULT_DIRECTORY = "target/retriable-arguments-cache";
+    
+    private static final int MAGIC = 0x52544143;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".args";
+    private static final int READ_BUFFER_SIZE = 8192;
+    
+    private final Path directory;
+    private final Method method;
+    private final CachedArguments cachedArguments;
+    
+    private ArgumentsCache(Path directory, Method method, CachedArguments cachedArguments) {
+        this.directory = directory;
+        this.method = method;
+        this.cachedArguments = cachedArguments;
+    }
+    
+    /**
+     * @param context         - context of the test template
+     * @param cachedArguments - annotation of the test method
+     * @return cache of the argument sets of the test method
+     */
+    static ArgumentsCache of(ExtensionContext context, CachedArguments cachedArguments) {
+        String directory = context.getConfigurationParameter(DIRECTORY_PROPERTY_NAME)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .orElse(DEFAULT_DIRECTORY);
+        return new ArgumentsCache(Paths.get(directory), context.getRequiredTestMethod(), cachedArguments);
+    }
+    
+    /**
+     * Argument sets of the provider, from the cache if its key is unchanged
+     *
+     * @param provider - initialized provider of the method
+     * @param index    - position of the provider among the providers of the method
+     * @param context  - context of the test template
+     * @return argument sets of the provider
+     */
+    Stream<? extends Arguments> arguments(ArgumentsProvider provider, int index, ExtensionContext context) {
+        Path file = directory.resolve(key(provider, index, context) + SUFFIX);
+        if (Files.isRegularFile(file)) {
+            Stream<? extends Arguments> cached = read(file);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return write(file, RetriableParameterizedTestExtension.arguments(provider, context));
+    }
+    
+    /**
+     * Provider class, position, test class, method and its source annotations, and the content of the declared inputs.
+     * The test class tells apart subclasses that inherit the method, their providers may resolve differently.
+     */
+    private String key(ArgumentsProvider provider, int index, ExtensionContext context) {
+        MessageDigest digest = sha256();
+        update(digest, provider.getClass().getName());
+        update(digest, String.valueOf(index));
+        update(digest, context.getRequiredTestClass().getName());
+        update(digest, method.toGenericString());
+        for (Annotation annotation : method.getAnnotations()) {
+            if (annotation instanceof ArgumentsSource || isAnnotated(annotation.annotationType(), ArgumentsSource.class)) {
+                update(digest, annotation.toString());
+            }
+        }
+        for (String input : cachedArguments.inputs()) {
+            Path path = Paths.get(input);
+            Preconditions.condition(Files.isRegularFile(path), () -> String.format(
+                    "Configuration error: input file [%s] of @CachedArguments on method [%s] does not exist.",
+                    path.toAbsolutePath(), method.toGenericString()));
+            update(digest, input);
+            try (InputStream in = Files.newInputStream(path)) {
+                byte[] buffer = new byte[READ_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new JUnitException("Could not read input file " + path + " of cached arguments", e);
+            }
+        }
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new JUnitException("SHA-256 is not available", e);
+        }
+    }
+    
+    /**
+     * Every part is terminated, so the parts cannot run into each other
+     */
+    private static void update(MessageDigest digest, String part) {
+        digest.update(part.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+    
+    /**
+     * The first record is read here, so a file that cannot be read at all falls back to the provider
+     *
+     * @return argument sets of the file, null if the file is not a readable cache file of this version
+     */
+    private Stream<? extends Arguments> read(Path file) {
+        InputStream raw = null;
+        ObjectInputStream in = null;
+        try {
+            raw = Files.newInputStream(file);
+            in = new ClassLoaderObjectInputStream(new InflaterInputStream(new BufferedInputStream(raw)),
+                    method.getDeclaringClass().getClassLoader());
+            if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                CacheReader reader = new CacheReader(file, in, in.readObject());
+                return stream(spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                        .onClose(reader::close);
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // written by another version, broken or holding classes that changed since,
+            // the provider runs again and replaces it
+        }
+        closeQuietly(in == null ? raw : in);
+        return null;
+    }
+    
+    private Stream<? extends Arguments> write(Path file, Stream<? extends Arguments> source) {
+        CacheWriter writer = CacheWriter.open(file);
+        if (writer == null) {
+            return source;
+        }
+        Iterator<? extends Arguments> arguments = source.iterator();
+        Iterator<Arguments> tee = new Iterator<Arguments>() {
+            @Override
+            public boolean hasNext() {
+                if (arguments.hasNext()) {
+                    return true;
+                }
+                writer.commit();
+                return false;
+            }
+            
+            @Override
+            public Arguments next() {
+                Arguments next = arguments.next();
+                writer.write(next.get());
+                return next;
+            }
+        };
+        return stream(spliteratorUnknownSize(tee, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    writer.abandon();
+                    source.close();
+                });
+    }
+    
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // nothing left to do
+            }
+        }
+    }
+    
+    private static final class CacheReader implements Iterator<Arguments> {
+        
+        private final Path file;
+        private final ObjectInputStream in;
+        private Object[] next;
+        private boolean exhausted;
+        
+        private CacheReader(Path file, ObjectInputStream in, Object first) {
+            this.file = file;
+            this.in = in;
+            accept(first);
+        }
+        
+        private void accept(Object record) {
+            if (record == null) {
+                exhausted = true;
+            } else {
+                next = (Object[]) record;
+            }
+        }
+        
+        @Override
+        public boolean hasNext() {
+            if (next == null && !exhausted) {
+                try {
+                    accept(in.readObject());
+                } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                    close();
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException deleteFailure) {
+                        e.addSuppressed(deleteFailure);
+                    }
+                    throw new JUnitException("Could not read cached arguments from " + file
+                            + ", the cache file is dropped and rebuilt by the next run", e);
+                }
+            }
+            return next != null;
+        }
+        
+        @Override
+        public Arguments next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object[] arguments = next;
+            next = null;
+            return Arguments.of(arguments);
+        }
+        
+        private void close() {
+            exhausted = true;
+            closeQuietly(in);
+        }
+    }
+    
+    /**
+     * Writes into a temporary file that replaces the cache file on {@link #commit()}. Arguments that cannot be
+     * serialized end the writing, the provider then simply runs again next time.
+     */
+    private static final class CacheWriter {
+        
+        private final Path file;
+        private final Path temporary;
+        private final ObjectOutputStream out;
+        private boolean done;
+        
+        private CacheWriter(Path file, Path temporary, ObjectOutputStream out) {
+            this.file = file;
+            this.temporary = temporary;
+            this.out = out;
+        }
+        
+        /**
+         * @return writer of the file, null if the cache directory is not writable
+         */
+        static CacheWriter open(Path file) {
+            Path temporary = null;
+            try {
+                Files.createDirectories(file.getParent());
+                temporary = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+                ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(temporary))));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                return new CacheWriter(file, temporary, out);
+            } catch (IOException e) {
+                deleteQuietly(temporary);
+                return null;
+            }
+        }
+        
+        void write(Object[] arguments) {
+            if (done) {
+                return;
+            }
+            try {
+                out.writeObject(arguments);
+                // forget the written objects, memory stays bounded and deflate takes care of repeated class descriptors
+                out.reset();
+            } catch (IOException e) {
+                abandon();
+            }
+        }
+        
+        void commit() {
+            if (done) {
+                return;
+            }
+            try {
+                out.writeObject(null);
+                out.close();
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                done = true;
+            } catch (IOException e) {
+                abandon();
+            }
+        }
+        
+        void abandon() {
+            if (done) {
+                return;
+            }
+            done = true;
+            closeQuietly(out);
+            deleteQuietly(temporary);
+        }
+        
+        private static void deleteQuietly(Path path) {
+            if (path != null) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // a stale temporary file is never read
+                }
+            }
+        }
+    }
+    
+    /**
+     * Resolves the classes of the arguments with the loader of the test class
+     */
+    private static final class ClassLoaderObjectInputStream extends ObjectInputStream {
+        
+        private final ClassLoader classLoader;
+        
+        private ClassLoaderObjectInputStream(InputStream in, ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+        
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass descriptor) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(descriptor.getName(), false, classLoader);
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(descriptor);
+            }
+        }
+    }
+}
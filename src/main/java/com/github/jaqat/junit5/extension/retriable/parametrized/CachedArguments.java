@@ -0,0 +1,29 @@
+package com.github.jaqat.junit5.extension.retriable.parametrized;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caches the argument sets of a {@link RetriableParameterizedTest} on disk, so expensive argument sources,
+ * e.g. {@code @MethodSource} factories that parse large fixture files, only run when their inputs change.
+ * <p>
+ * The argument sets of every provider are stored in a file of the {@link ArgumentsCache} directory, keyed by the
+ * provider class, the source annotations of the method and the content of the {@link #inputs()}. Arguments have
+ * to be {@link java.io.Serializable}; sources producing other arguments are simply not cached.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedArguments {
+    
+    /**
+     * Files the argument sources read, relative to the working directory; a change of their content
+     * invalidates the cached argument sets
+     *
+     * @return paths of the input files
+     */
+    String[] inputs() default {};
+}
@@ -1,5 +1,8 @@
 package com.github.jaqat.junit5.extension.retriable.parametrized;
 
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeout;
+import com.github.jaqat.junit5.extension.retriable.common.Backoff;
+import com.github.jaqat.junit5.extension.retriable.common.Quarantine;
 import org.apiguardian.api.API;
 import org.junit.jupiter.api.TestTemplate;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -59,4 +62,48 @@ public @interface RetriableParameterizedTest {
      */
     int repeats();
     
+    /**
+     * Number of argument sets that may run at the same time, each of them with its own retries.
+     * <p>
+     * Attempts are executed by the Jupiter parallel executor, so values above 1 only speed up the test
+     * with {@code junit.jupiter.execution.parallel.enabled=true}; the pool is configured with the usual
+     * {@code junit.jupiter.execution.parallel.config.*} parameters.
+     * <p>
+     * Cases are started, and numbered in their display names, in the order of their argument sets.
+     * With values above 1 they are reported as finished in the order they complete, so the retry of
+     * a case may be reported after cases of later argument sets.
+     *
+     * @return maximum number of cases in flight
+     */
+    int concurrency() default 1;
+    
+    /**
+     * Delay between a failed attempt of a case and its retry; other cases keep running meanwhile
+     *
+     * @return Backoff, no delay by default
+     */
+    Backoff backoff() default @Backoff;
+    
+    /**
+     * Known-flaky test that runs in the quarantine lane, see {@link Quarantine}
+     *
+     * @return true if the test is quarantined
+     */
+    boolean quarantined() default false;
+    
+    /**
+     * Timeout of every attempt in milliseconds; a hung attempt is interrupted and retried, see {@link AttemptTimeout}
+     *
+     * @return Timeout, attempts are not watched by default
+     */
+    long attemptTimeout() default 0;
+    
+    /**
+     * Reuse the parameters converted or aggregated for the first attempt of an argument set in all of its retries,
+     * so {@code @ConvertWith} converters and {@code @AggregateWith} aggregators run once per argument set.
+     * Disable it for mutable parameters that an attempt may change and that have to be built again for the retry.
+     *
+     * @return false to resolve the parameters for every attempt again
+     */
+    boolean memoizeArguments() default true;
 }
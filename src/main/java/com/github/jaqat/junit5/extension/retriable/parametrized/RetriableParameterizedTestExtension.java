@@ -1,5 +1,11 @@
 package com.github.jaqat.junit5.extension.retriable.parametrized;
 
+import com.github.jaqat.junit5.extension.retriable.common.FlakeHistory;
+import com.github.jaqat.junit5.extension.retriable.common.ManagedBlocking;
+import com.github.jaqat.junit5.extension.retriable.common.Quarantine;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
 import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
@@ -10,13 +16,16 @@ import org.junit.jupiter.params.provider.ArgumentsSource;
 import org.junit.jupiter.params.support.AnnotationConsumerInitializer;
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.util.ExceptionUtils;
+import org.junit.platform.commons.util.PreconditionViolationException;
 import org.junit.platform.commons.util.Preconditions;
 import org.junit.platform.commons.util.ReflectionUtils;
-import org.opentest4j.TestAbortedException;
 
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,12 +36,10 @@ import static org.junit.platform.commons.util.AnnotationUtils.*;
 /**
  * @since 5.0
  */
-class RetriableParameterizedTestExtension implements TestTemplateInvocationContextProvider {
+class RetriableParameterizedTestExtension implements TestTemplateInvocationContextProvider, ExecutionCondition {
     
     private static final String METHOD_CONTEXT_KEY = "context";
     
-    private List<RetriableParameterizedTestInvocationContext> parameterizedTestInvocationContextList;
-    
     @Override
     public boolean supportsTestTemplate(ExtensionContext context) {
         if (!context.getTestMethod().isPresent()) {
@@ -57,52 +64,52 @@ class RetriableParameterizedTestExtension implements TestTemplateInvocationConte
         return true;
     }
     
+    /**
+     * Skip the test if it belongs to the other {@link Quarantine} lane
+     */
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        Optional<Method> method = context.getTestMethod();
+        if (!isAnnotated(method, RetriableParameterizedTest.class)) {
+            return ConditionEvaluationResult.enabled("Not a retriable parameterized test");
+        }
+        return Quarantine.of(context).evaluate(method.get(), RetryPolicy.forMethod(method.get()));
+    }
+    
     @Override
     public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(
             ExtensionContext extensionContext) {
         
-        // Get parameters from @RetriableParameterizedTest
-        RetriableParameterizedTest retriableParameterizedTestAnnotation =
-                extensionContext
-                        .getTestMethod()
-                        .flatMap(testMethods -> findAnnotation(testMethods, RetriableParameterizedTest.class))
-                        .orElseThrow(
-                                () -> new IllegalStateException("The extension should not be executed ")
-                        );
-        
-        List<Class<? extends Throwable>> repeatableExceptions = new ArrayList<>(Arrays.asList(retriableParameterizedTestAnnotation.exceptions()));
-        repeatableExceptions.add(TestAbortedException.class);
-        int repetitions = retriableParameterizedTestAnnotation.repeats();
-        
-        
         Method templateMethod = extensionContext.getRequiredTestMethod();
+        RetryPolicy policy = Quarantine.of(extensionContext).adapt(FlakeHistory.of(extensionContext)
+                .adapt(FlakeHistory.key(extensionContext.getUniqueId()), RetryPolicy.forMethod(templateMethod)));
         String displayName = extensionContext.getDisplayName();
         RetriableParameterizedTestMethodContext methodContext = getStore(extensionContext)//
                 .get(METHOD_CONTEXT_KEY, RetriableParameterizedTestMethodContext.class);
-        RetriableParameterizedTestNameFormatter formatter = createNameFormatter(templateMethod, displayName);
-        AtomicLong invocationCount = new AtomicLong(0);
+        RetriableParameterizedTestNameFormatter formatter = createNameFormatter(extensionContext, policy, displayName);
         
         // @formatter:off
-        parameterizedTestInvocationContextList =
+        List<ArgumentsProvider> providers =
                 findRepeatableAnnotations(templateMethod, ArgumentsSource.class)
                         .stream()
                         .map(ArgumentsSource::value)
                         .map(this::instantiateArgumentsProvider)
                         .map(provider -> AnnotationConsumerInitializer.initialize(templateMethod, provider))
-                        .flatMap(provider -> arguments(provider, extensionContext))
-                        .map(Arguments::get)
-                        .map(arguments -> consumedArguments(arguments, methodContext))
-                        .map(arguments -> new RetriableParameterizedTestInvocationContext(formatter, methodContext, repeatableExceptions, repetitions, arguments))
-                        .peek(invocationContext -> invocationCount.incrementAndGet())
-                        .onClose(() ->
-                                Preconditions.condition(invocationCount.get() > 0,
-                                        "Configuration error: You must configure at least one set of arguments for this @RetriableParameterizedTest"))
                         .collect(Collectors.toList());
         // @formatter:on
         
+        ArgumentsCache cache = findAnnotation(templateMethod, CachedArguments.class)
+                .map(cachedArguments -> ArgumentsCache.of(extensionContext, cachedArguments))
+                .orElse(null);
+        
+        // Argument sets are pulled from the providers one by one, only when there is room for another case
+        TestTemplateIterator iterator = new TestTemplateIterator(providers.iterator(), cache, extensionContext,
+                policy.concurrency(),
+                (arguments, onAttemptFinished) -> new RetriableParameterizedTestInvocationContext(formatter,
+                        methodContext, policy, consumedArguments(arguments, methodContext), onAttemptFinished));
         Spliterator<TestTemplateInvocationContext> spliterator =
-                spliteratorUnknownSize(new RetriableParameterizedTestExtension.TestTemplateIterator(), Spliterator.NONNULL);
-        return stream(spliterator, false);
+                spliteratorUnknownSize(iterator, Spliterator.NONNULL);
+        return stream(spliterator, false).onClose(iterator::close);
     }
     
     @SuppressWarnings("ConstantConditions")
@@ -125,13 +132,26 @@ class RetriableParameterizedTestExtension implements TestTemplateInvocationConte
         return context.getStore(Namespace.create(RetriableParameterizedTestExtension.class, context.getRequiredTestMethod()));
     }
     
-    private RetriableParameterizedTestNameFormatter createNameFormatter(Method templateMethod, String displayName) {
-        RetriableParameterizedTest retriableParameterizedTest = findAnnotation(templateMethod, RetriableParameterizedTest.class).get();
-        String pattern = Preconditions.notBlank(retriableParameterizedTest.name().trim(),
-                () -> String.format(
-                        "Configuration error: @RetriableParameterizedTest on method [%s] must be declared with a non-empty name.",
-                        templateMethod));
-        return new RetriableParameterizedTestNameFormatter(pattern, displayName);
+    private RetriableParameterizedTestNameFormatter createNameFormatter(ExtensionContext extensionContext,
+                                                                        RetryPolicy policy, String displayName) {
+        int maxArgumentLength = extensionContext
+                .getConfigurationParameter(RetriableParameterizedTestNameFormatter.MAX_ARGUMENT_LENGTH_PROPERTY_NAME)
+                .map(RetriableParameterizedTestExtension::parseMaxArgumentLength)
+                .orElse(RetriableParameterizedTestNameFormatter.DEFAULT_MAX_ARGUMENT_LENGTH);
+        Preconditions.condition(maxArgumentLength > 0, () -> String.format(
+                "Configuration error: %s must be higher than 0",
+                RetriableParameterizedTestNameFormatter.MAX_ARGUMENT_LENGTH_PROPERTY_NAME));
+        return new RetriableParameterizedTestNameFormatter(policy.name(), displayName, maxArgumentLength);
+    }
+    
+    private static int parseMaxArgumentLength(String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new PreconditionViolationException(String.format(
+                    "Configuration error: %s must be a number but was [%s]",
+                    RetriableParameterizedTestNameFormatter.MAX_ARGUMENT_LENGTH_PROPERTY_NAME, value), e);
+        }
     }
     
     protected static Stream<? extends Arguments> arguments(ArgumentsProvider provider, ExtensionContext context) {
@@ -150,33 +170,137 @@ class RetriableParameterizedTestExtension implements TestTemplateInvocationConte
     
     /**
      * TestTemplateIterator
+     * <p>
+     * Walks the argument sets lazily and keeps at most {@code concurrency} cases in flight.
+     * A new argument set is taken from the providers only when there is room for another case;
+     * otherwise the iterator waits for any running attempt to finish and either retries that case
+     * (after its backoff delay) or drops it together with its arguments. With {@code concurrency = 1} cases run strictly one after another.
+     * <p>
+     * Cases are handed out in source order, and so are their retries: of all the cases whose attempts finished
+     * meanwhile, the one that comes first in the source is retried first. A case is never held back for an earlier
+     * case that is still running, that would keep its arguments alive and stall the pool.
      */
-    class TestTemplateIterator implements Iterator<TestTemplateInvocationContext> {
-        int currentIndex = 0;
+    static class TestTemplateIterator implements Iterator<TestTemplateInvocationContext> {
+        private final Iterator<ArgumentsProvider> providers;
+        private final ArgumentsCache cache;
+        private final ExtensionContext extensionContext;
+        private final int concurrency;
+        private final BiFunction<Object[], Consumer<RetriableParameterizedTestInvocationContext>,
+                RetriableParameterizedTestInvocationContext> caseFactory;
+        private final BlockingQueue<RetriableParameterizedTestInvocationContext> finishedAttempts =
+                new LinkedBlockingQueue<>();
+        private final Queue<RetriableParameterizedTestInvocationContext> finishedInSourceOrder =
+                new PriorityQueue<>(Comparator.comparingInt(
+                        RetriableParameterizedTestInvocationContext::getDisplayNameInvocationIndex));
+        
+        private Stream<? extends Arguments> currentStream;
+        private Iterator<? extends Arguments> currentArguments;
+        private boolean argumentsExhausted = false;
+        private RetriableParameterizedTestInvocationContext nextCase;
+        private int activeCases = 0;
+        private int casesCount = 0;
+        private int providersCount = 0;
+        
+        /**
+         * @param cache - cache of the argument sets, null if they are not cached
+         */
+        TestTemplateIterator(Iterator<ArgumentsProvider> providers, ArgumentsCache cache,
+                             ExtensionContext extensionContext, int concurrency,
+                             BiFunction<Object[], Consumer<RetriableParameterizedTestInvocationContext>,
+                                     RetriableParameterizedTestInvocationContext> caseFactory) {
+            this.providers = providers;
+            this.cache = cache;
+            this.extensionContext = extensionContext;
+            this.concurrency = concurrency;
+            this.caseFactory = caseFactory;
+        }
         
         @Override
         public boolean hasNext() {
-            if (currentIndex < parameterizedTestInvocationContextList.size()) {
-                if (parameterizedTestInvocationContextList.get(currentIndex).hasNext()) {
-                    return true;
-                } else {
-                    if (++currentIndex < parameterizedTestInvocationContextList.size()) {
-                        return parameterizedTestInvocationContextList.get(currentIndex).hasNext();
+            while (nextCase == null) {
+                if (activeCases < concurrency && !argumentsExhausted) {
+                    Object[] arguments = nextArguments();
+                    if (arguments != null) {
+                        activeCases++;
+                        nextCase = caseFactory.apply(arguments, finishedAttempts::add)
+                                .withDisplayNameInvocationIndex(++casesCount);
+                        continue;
                     }
+                    argumentsExhausted = true;
+                }
+                if (activeCases == 0) {
+                    return false;
+                }
+                RetriableParameterizedTestInvocationContext finishedCase = nextFinishedCase();
+                if (finishedCase.hasNext()) {
+                    if (finishedCase.backoffPending()) {
+                        // comes back to the queue once the delay is over, other cases go on meanwhile
+                        finishedCase.scheduleRetry(finishedAttempts::add);
+                    } else {
+                        nextCase = finishedCase;
+                    }
+                } else {
+                    finishedCase.release();
+                    activeCases--;
                 }
             }
-            return false;
+            return true;
         }
         
         @Override
         public TestTemplateInvocationContext next() {
-            return parameterizedTestInvocationContextList.get(currentIndex).withDisplayNameInvocationIndex(currentIndex + 1).next();
+            if (hasNext()) {
+                RetriableParameterizedTestInvocationContext invocationCase = nextCase;
+                nextCase = null;
+                return invocationCase.next();
+            }
+            throw new NoSuchElementException();
         }
         
         @Override
         public void remove() {
             throw new UnsupportedOperationException();
         }
+        
+        /**
+         * Wait for any attempt to finish, then take the finished case that comes first in the source
+         */
+        private RetriableParameterizedTestInvocationContext nextFinishedCase() {
+            if (finishedInSourceOrder.isEmpty()) {
+                finishedInSourceOrder.add(ManagedBlocking.take(finishedAttempts));
+            }
+            finishedAttempts.drainTo(finishedInSourceOrder);
+            return finishedInSourceOrder.poll();
+        }
+        
+        private Object[] nextArguments() {
+            while (currentArguments == null || !currentArguments.hasNext()) {
+                closeCurrentStream();
+                if (!providers.hasNext()) {
+                    return null;
+                }
+                ArgumentsProvider provider = providers.next();
+                currentStream = cache == null ? arguments(provider, extensionContext)
+                        : cache.arguments(provider, providersCount, extensionContext);
+                providersCount++;
+                currentArguments = currentStream.iterator();
+            }
+            return currentArguments.next().get();
+        }
+        
+        private void closeCurrentStream() {
+            if (currentStream != null) {
+                currentStream.close();
+                currentStream = null;
+                currentArguments = null;
+            }
+        }
+        
+        void close() {
+            closeCurrentStream();
+            Preconditions.condition(casesCount > 0,
+                    "Configuration error: You must configure at least one set of arguments for this @RetriableParameterizedTest");
+        }
     }
     
 }
@@ -1,6 +1,9 @@
 package com.github.jaqat.junit5.extension.retriable.parametrized;
 
+import com.github.jaqat.junit5.extension.retriable.common.AttemptLedger;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTracker;
 import com.github.jaqat.junit5.extension.retriable.common.RepeatExecutionCondition;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
 import org.junit.jupiter.api.extension.Extension;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
@@ -8,41 +11,51 @@ import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-
-import static java.lang.Math.toIntExact;
+import java.util.function.Consumer;
 
 /**
  * @since 5.0
  */
 class RetriableParameterizedTestInvocationContext implements TestTemplateInvocationContext, Iterator<TestTemplateInvocationContext> {
     
-    private final int minSuccess = 1;
-    
-    private final Integer maxRepetitions;
-    private final List<Class<? extends Throwable>> repeatableExceptions;
+    private final RetryPolicy policy;
     
     private AtomicInteger currentRepetition = new AtomicInteger(0);
     private AtomicBoolean repeatableExceptionAppeared = new AtomicBoolean();
-    private List<Boolean> historyExceptionAppear = Collections.synchronizedList(new ArrayList<>());
+    private final AttemptLedger ledger;
+    private final AttemptTracker attemptTracker;
     
     private final RetriableParameterizedTestNameFormatter formatter;
     private final RetriableParameterizedTestMethodContext methodContext;
-    private final Object[] arguments;
+    private Object[] arguments;
+    /**
+     * Parameters resolved by earlier attempts, null if every attempt resolves them again
+     */
+    private Object[] resolvedParameters;
     
     private int displayNameInvocationIndex;
+    private String caseDisplayName;
+    
+    private int backedOffBefore = 1;
+    private long lastBackoffDelay = 0;
     
     RetriableParameterizedTestInvocationContext(
             RetriableParameterizedTestNameFormatter formatter,
             RetriableParameterizedTestMethodContext methodContext,
-            List<Class<? extends Throwable>> repeatableExceptions,
-            int repetitions,
-            Object[] arguments
+            RetryPolicy policy,
+            Object[] arguments,
+            Consumer<RetriableParameterizedTestInvocationContext> onAttemptFinished
     ) {
         this.formatter = formatter;
         this.methodContext = methodContext;
-        this.repeatableExceptions = repeatableExceptions;
-        this.maxRepetitions = repetitions;
+        this.policy = policy;
         this.arguments = arguments;
+        if (methodContext.memoizesArguments()) {
+            this.resolvedParameters = RetriableParameterizedTestParameterResolver.resolvedParameters(
+                    methodContext.getParameterCount());
+        }
+        this.ledger = new AttemptLedger(policy.repeats(), false);
+        this.attemptTracker = new AttemptTracker(() -> onAttemptFinished.accept(this));
     }
     
     RetriableParameterizedTestInvocationContext withDisplayNameInvocationIndex(int index){
@@ -50,29 +63,43 @@ class RetriableParameterizedTestInvocationContext implements TestTemplateInvocat
         return this;
     }
     
+    /**
+     * @return one based position of the case in the source order of the argument sets
+     */
+    int getDisplayNameInvocationIndex() {
+        return displayNameInvocationIndex;
+    }
+    
     private ExtensionContext.Store getStore(ExtensionContext context) {
         return context.getStore(ExtensionContext.Namespace.create(getClass(), context.getRequiredTestMethod()));
     }
     
     @Override
     public String getDisplayName(int invocationIndex) {
-        return this.formatter.format(displayNameInvocationIndex, repeatableExceptionAppeared.get(), currentRepetition.get(), this.arguments);
+        // the arguments are rendered once per case, retries only get their suffix
+        if (caseDisplayName == null) {
+            caseDisplayName = this.formatter.format(displayNameInvocationIndex, this.arguments);
+        }
+        return this.formatter.retry(caseDisplayName, repeatableExceptionAppeared.get(), currentRepetition.get());
     }
     
     @Override
     public List<Extension> getAdditionalExtensions() {
         List<Extension> additionalExtensions = new ArrayList<>();
         
+        additionalExtensions.add(attemptTracker.completionCondition());
+        
         additionalExtensions.add(
-                new RetriableParameterizedTestParameterResolver(this.methodContext, this.arguments)
+                new RetriableParameterizedTestParameterResolver(this.methodContext, this.arguments,
+                        this.resolvedParameters)
         );
         
         additionalExtensions.add(
                 new RepeatExecutionCondition(
                         currentRepetition.get(),
-                        maxRepetitions,
-                        minSuccess,
-                        toIntExact(historyExceptionAppear.stream().filter(b -> !b).count()),
+                        policy.repeats(),
+                        policy.minSuccess(),
+                        ledger.successes(),
                         repeatableExceptionAppeared.get()
                 )
         );
@@ -80,11 +107,9 @@ class RetriableParameterizedTestInvocationContext implements TestTemplateInvocat
         additionalExtensions.add(
                 new RetriableParametrizedInstanceExtension(
                         currentRepetition,
-                        maxRepetitions,
-                        minSuccess,
-                        repeatableExceptions,
+                        policy,
                         repeatableExceptionAppeared,
-                        historyExceptionAppear
+                        ledger
                 )
         );
         
@@ -96,7 +121,9 @@ class RetriableParameterizedTestInvocationContext implements TestTemplateInvocat
         if (currentRepetition.get() == 0) {
             return true;
         }
-        return historyExceptionAppear.stream().anyMatch(ex -> ex) && currentRepetition.get() < maxRepetitions;
+        // the previous attempt may still run on another thread under parallel execution
+        attemptTracker.awaitFinished(currentRepetition.get());
+        return ledger.hasFailures() && !ledger.retriesDenied() && currentRepetition.get() < policy.repeats();
     }
     
     @Override
@@ -108,4 +135,33 @@ class RetriableParameterizedTestInvocationContext implements TestTemplateInvocat
         throw new NoSuchElementException();
     }
     
+    /**
+     * @return true if the retry of this case has to wait for its backoff delay first
+     */
+    boolean backoffPending() {
+        int repetition = currentRepetition.get();
+        return policy.backoff().isEnabled() && backedOffBefore <= repetition && ledger.successes() < policy.minSuccess();
+    }
+    
+    /**
+     * Hand this case over to the consumer once the backoff delay before its next retry is over
+     *
+     * @param onRetryDue - receives the case on the scheduler thread
+     */
+    void scheduleRetry(Consumer<RetriableParameterizedTestInvocationContext> onRetryDue) {
+        int repetition = currentRepetition.get();
+        backedOffBefore = repetition + 1;
+        lastBackoffDelay = policy.backoff().delayMillis(repetition, lastBackoffDelay);
+        policy.backoff().schedule(lastBackoffDelay, () -> onRetryDue.accept(this));
+    }
+    
+    /**
+     * Drop the arguments once all retries of the case are finished,
+     * Jupiter keeps the invocation context for the rest of the run.
+     */
+    void release() {
+        this.arguments = null;
+        this.resolvedParameters = null;
+    }
+    
 }
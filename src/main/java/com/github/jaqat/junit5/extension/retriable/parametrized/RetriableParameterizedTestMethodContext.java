@@ -27,31 +27,45 @@ import org.junit.platform.commons.util.StringUtils;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
-import java.util.ArrayList;
-import java.util.List;
 
 import static com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTestMethodContext.ResolverType.AGGREGATOR;
 import static com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTestMethodContext.ResolverType.CONVERTER;
+import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
 import static org.junit.platform.commons.util.AnnotationUtils.isAnnotated;
 
 /**
  * Encapsulates access to the parameters of a parameterized test method and
  * caches the converters and aggregators used to resolve them.
  *
+ * <p>The resolvers of all parameters are created once with the context, so
+ * resolving a parameter neither scans annotations nor instantiates converters.
+ * A resolver that cannot be created fails the resolution of its parameter.
+ *
  * @since 5.3
  */
 class RetriableParameterizedTestMethodContext {
 
-	private final List<ResolverType> resolverTypes;
+	private final ResolverType[] resolverTypes;
 	private final Resolver[] resolvers;
+	private final int indexOfFirstAggregator;
+	private final boolean memoizeArguments;
 
 	RetriableParameterizedTestMethodContext(Method testMethod) {
 		Parameter[] parameters = testMethod.getParameters();
-		this.resolverTypes = new ArrayList<>(parameters.length);
+		this.resolverTypes = new ResolverType[parameters.length];
 		this.resolvers = new Resolver[parameters.length];
-		for (Parameter parameter : parameters) {
-			this.resolverTypes.add(isAggregator(parameter) ? AGGREGATOR : CONVERTER);
+		int firstAggregator = -1;
+		for (int index = 0; index < parameters.length; index++) {
+			this.resolverTypes[index] = isAggregator(parameters[index]) ? AGGREGATOR : CONVERTER;
+			this.resolvers[index] = this.resolverTypes[index].createResolver(parameters[index]);
+			if (firstAggregator == -1 && this.resolverTypes[index] == AGGREGATOR) {
+				firstAggregator = index;
+			}
 		}
+		this.indexOfFirstAggregator = firstAggregator;
+		this.memoizeArguments = findAnnotation(testMethod, RetriableParameterizedTest.class)
+				.map(RetriableParameterizedTest::memoizeArguments)
+				.orElse(true);
 	}
 
 	/**
@@ -111,7 +125,7 @@ class RetriableParameterizedTestMethodContext {
 	 * @return {@code true} if the method has an aggregator
 	 */
 	boolean hasAggregator() {
-		return resolverTypes.contains(AGGREGATOR);
+		return indexOfFirstAggregator != -1;
 	}
 
 	/**
@@ -122,7 +136,7 @@ class RetriableParameterizedTestMethodContext {
 	 * @return {@code true} if the parameter is an aggregator
 	 */
 	boolean isAggregator(int parameterIndex) {
-		return resolverTypes.get(parameterIndex) == AGGREGATOR;
+		return resolverTypes[parameterIndex] == AGGREGATOR;
 	}
 
 	/**
@@ -132,7 +146,17 @@ class RetriableParameterizedTestMethodContext {
 	 * @return the index of the first aggregator, or {@code -1} if not found
 	 */
 	int indexOfFirstAggregator() {
-		return resolverTypes.indexOf(AGGREGATOR);
+		return indexOfFirstAggregator;
+	}
+
+	/**
+	 * Determine if resolved parameters are reused by all attempts of an
+	 * argument set, see {@link RetriableParameterizedTest#memoizeArguments()}.
+	 *
+	 * @return {@code true} if resolved parameters are memoized
+	 */
+	boolean memoizesArguments() {
+		return memoizeArguments;
 	}
 
 	/**
@@ -140,53 +164,45 @@ class RetriableParameterizedTestMethodContext {
 	 * arguments.
 	 */
 	Object resolve(ParameterContext parameterContext, Object[] arguments) {
-		return getResolver(parameterContext).resolve(parameterContext, arguments);
-	}
-
-	private Resolver getResolver(ParameterContext parameterContext) {
-		int index = parameterContext.getIndex();
-		if (resolvers[index] == null) {
-			resolvers[index] = resolverTypes.get(index).createResolver(parameterContext);
-		}
-		return resolvers[index];
+		return resolvers[parameterContext.getIndex()].resolve(parameterContext, arguments);
 	}
 
 	enum ResolverType {
 
 		CONVERTER {
 			@Override
-			Resolver createResolver(ParameterContext parameterContext) {
+			Resolver createResolver(Parameter parameter) {
 				try { // @formatter:off
-					return AnnotationUtils.findAnnotation(parameterContext.getParameter(), ConvertWith.class)
+					return AnnotationUtils.findAnnotation(parameter, ConvertWith.class)
 							.map(ConvertWith::value)
 							.map(clazz -> (ArgumentConverter) ReflectionUtils.newInstance(clazz))
-							.map(converter -> AnnotationConsumerInitializer.initialize(parameterContext.getParameter(), converter))
+							.map(converter -> AnnotationConsumerInitializer.initialize(parameter, converter))
 							.map(Converter::new)
 							.orElse(Converter.DEFAULT);
 				} // @formatter:on
 				catch (Exception ex) {
-					throw parameterResolutionException("Error creating ArgumentConverter", ex, parameterContext);
+					return new Failure("Error creating ArgumentConverter", ex);
 				}
 			}
 		},
 
 		AGGREGATOR {
 			@Override
-			Resolver createResolver(ParameterContext parameterContext) {
+			Resolver createResolver(Parameter parameter) {
 				try { // @formatter:off
-					return AnnotationUtils.findAnnotation(parameterContext.getParameter(), AggregateWith.class)
+					return AnnotationUtils.findAnnotation(parameter, AggregateWith.class)
 							.map(AggregateWith::value)
 							.map(clazz -> (ArgumentsAggregator) ReflectionSupport.newInstance(clazz))
 							.map(Aggregator::new)
 							.orElse(Aggregator.DEFAULT);
 				} // @formatter:on
 				catch (Exception ex) {
-					throw parameterResolutionException("Error creating ArgumentsAggregator", ex, parameterContext);
+					return new Failure("Error creating ArgumentsAggregator", ex);
 				}
 			}
 		};
 
-		abstract Resolver createResolver(ParameterContext parameterContext);
+		abstract Resolver createResolver(Parameter parameter);
 
 	}
 
@@ -242,6 +258,26 @@ class RetriableParameterizedTestMethodContext {
 
 	}
 
+	/**
+	 * Resolver of a parameter whose converter or aggregator could not be created
+	 */
+	static class Failure implements Resolver {
+
+		private final String message;
+		private final Exception cause;
+
+		Failure(String message, Exception cause) {
+			this.message = message;
+			this.cause = cause;
+		}
+
+		@Override
+		public Object resolve(ParameterContext parameterContext, Object[] arguments) {
+			throw parameterResolutionException(this.message, this.cause, parameterContext);
+		}
+
+	}
+
 	private static ParameterResolutionException parameterResolutionException(String message, Exception cause,
 			ParameterContext parameterContext) {
 		String fullMessage = message + " at index " + parameterContext.getIndex();
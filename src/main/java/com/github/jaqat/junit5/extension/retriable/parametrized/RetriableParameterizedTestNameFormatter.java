@@ -3,8 +3,11 @@ package com.github.jaqat.junit5.extension.retriable.parametrized;
 import org.junit.platform.commons.JUnitException;
 import org.junit.platform.commons.util.StringUtils;
 
+import java.lang.reflect.Array;
 import java.text.MessageFormat;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.stream.IntStream;
 
 import static com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest.ARGUMENTS_PLACEHOLDER;
@@ -13,60 +16,165 @@ import static com.github.jaqat.junit5.extension.retriable.parametrized.Retriable
 import static java.util.stream.Collectors.joining;
 
 /**
+ * Formats the display names of the cases of one {@link RetriableParameterizedTest} method.
+ * <p>
+ * The pattern is compiled once per argument count into a {@link MessageFormat} whose last
+ * argument is the invocation index, so a case only renders its arguments. Arguments are rendered
+ * up to {@value #MAX_ARGUMENT_LENGTH_PROPERTY_NAME} characters; arrays and collections are walked
+ * only as far as that limit reaches.
+ *
  * @since 5.0
  */
 class RetriableParameterizedTestNameFormatter {
 
+	static final String MAX_ARGUMENT_LENGTH_PROPERTY_NAME = "junit.retriable.displayname.argument.maxlength";
+
+	static final int DEFAULT_MAX_ARGUMENT_LENGTH = 512;
+
+	private static final char ELLIPSIS = '\u2026';
+
 	private final String pattern;
 	private final String displayName;
+	private final int maxArgumentLength;
+
+	// indexed by argument count, replaced as a whole when a new count shows up
+	private volatile MessageFormat[] templates = new MessageFormat[0];
 
 	RetriableParameterizedTestNameFormatter(String pattern, String displayName) {
+		this(pattern, displayName, DEFAULT_MAX_ARGUMENT_LENGTH);
+	}
+
+	RetriableParameterizedTestNameFormatter(String pattern, String displayName, int maxArgumentLength) {
 		this.pattern = pattern;
 		this.displayName = displayName;
+		this.maxArgumentLength = maxArgumentLength;
 	}
 
-	String format(int invocationIndex, boolean repeatableExceptionAppeared, int currentRepetition,  Object... arguments) {
-		String pattern = prepareMessageFormatPattern(invocationIndex, repeatableExceptionAppeared, currentRepetition, arguments);
-		Object[] humanReadableArguments = makeReadable(arguments);
-		return formatSafely(pattern, humanReadableArguments);
+	/**
+	 * @return display name of a case without the retry suffix
+	 */
+	String format(int invocationIndex, Object... arguments) {
+		MessageFormat template = template(arguments.length);
+		// Note: formatArguments must be an Object[] in order to
+		// avoid varargs issues with non-Eclipse compilers.
+		Object[] formatArguments = new Object[arguments.length + 1];
+		for (int i = 0; i < arguments.length; i++) {
+			formatArguments[i] = render(arguments[i]);
+		}
+		formatArguments[arguments.length] = String.valueOf(invocationIndex);
+		return formatSafely(template, formatArguments);
 	}
 
-	private String prepareMessageFormatPattern(int invocationIndex,  boolean repeatableExceptionAppeared, int currentRepetition, Object[] arguments) {
+	/**
+	 * @param name - display name of the case, see {@link #format(int, Object...)}
+	 * @return display name of the given repetition of the case
+	 */
+	String retry(String name, boolean repeatableExceptionAppeared, int currentRepetition) {
+		return repeatableExceptionAppeared ? name.concat(" [Retry " + currentRepetition + "] ") : name;
+	}
+
+	private MessageFormat template(int argumentCount) {
+		MessageFormat[] templates = this.templates;
+		if (argumentCount < templates.length && templates[argumentCount] != null) {
+			return templates[argumentCount];
+		}
+		MessageFormat template = compile(argumentCount);
+		MessageFormat[] extended = Arrays.copyOf(templates, Math.max(templates.length, argumentCount + 1));
+		extended[argumentCount] = template;
+		this.templates = extended;
+		return template;
+	}
+
+	private MessageFormat compile(int argumentCount) {
 		String result = pattern
-				.replace(DISPLAY_NAME_PLACEHOLDER, this.displayName)
-				.replace(INDEX_PLACEHOLDER, String.valueOf(invocationIndex));
+				.replace(DISPLAY_NAME_PLACEHOLDER, quoted(this.displayName))
+				.replace(INDEX_PLACEHOLDER, "{" + argumentCount + "}");
 
 		if (result.contains(ARGUMENTS_PLACEHOLDER)) {
-			String replacement = IntStream.range(0, arguments.length)
+			String replacement = IntStream.range(0, argumentCount)
 					.mapToObj(index -> "{" + index + "}")
 					.collect(joining(", "));
 			result = result.replace(ARGUMENTS_PLACEHOLDER, replacement);
 		}
-		
-		if (repeatableExceptionAppeared){
-			result = result.concat(" [Retry " + currentRepetition + "] ");
+
+		try {
+			return new MessageFormat(result);
+		}
+		catch (IllegalArgumentException ex) {
+			throw invalidPattern(ex);
 		}
-		
-		return result;
 	}
 
-	private Object[] makeReadable(Object[] arguments) {
-		// Note: humanReadableArguments must be an Object[] in order to
-		// avoid varargs issues with non-Eclipse compilers.
-		Object[] humanReadableArguments = //
-			Arrays.stream(arguments).map(StringUtils::nullSafeToString).toArray(String[]::new);
-		return humanReadableArguments;
+	/**
+	 * The display name is literal text, not part of the pattern
+	 */
+	private static String quoted(String text) {
+		return "'" + text.replace("'", "''") + "'";
+	}
+
+	private String render(Object argument) {
+		StringBuilder builder = new StringBuilder();
+		append(builder, argument);
+		if (builder.length() > maxArgumentLength) {
+			builder.setLength(Math.max(maxArgumentLength - 1, 0));
+			builder.append(ELLIPSIS);
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Appends like {@link StringUtils#nullSafeToString(Object)} but stops once the builder
+	 * got longer than the limit
+	 */
+	private void append(StringBuilder builder, Object value) {
+		if (builder.length() > maxArgumentLength) {
+			return;
+		}
+		if (value != null && value.getClass().isArray()) {
+			builder.append('[');
+			int length = Array.getLength(value);
+			for (int i = 0; i < length && builder.length() <= maxArgumentLength; i++) {
+				if (i > 0) {
+					builder.append(", ");
+				}
+				append(builder, Array.get(value, i));
+			}
+			builder.append(']');
+		}
+		else if (value instanceof Collection) {
+			builder.append('[');
+			Iterator<?> elements = ((Collection<?>) value).iterator();
+			for (int i = 0; elements.hasNext() && builder.length() <= maxArgumentLength; i++) {
+				if (i > 0) {
+					builder.append(", ");
+				}
+				Object element = elements.next();
+				append(builder, element == value ? "(this Collection)" : element);
+			}
+			builder.append(']');
+		}
+		else {
+			String text = StringUtils.nullSafeToString(value);
+			builder.append(text, 0, Math.min(text.length(), maxArgumentLength + 1 - builder.length()));
+		}
 	}
 
-	private String formatSafely(String pattern, Object[] arguments) {
+	private String formatSafely(MessageFormat template, Object[] arguments) {
 		try {
-			return MessageFormat.format(pattern, arguments);
+			// MessageFormat keeps state while formatting, the template is shared by concurrent cases
+			synchronized (template) {
+				return template.format(arguments);
+			}
 		}
 		catch (IllegalArgumentException ex) {
-			String message = "The display name pattern defined for the parameterized test is invalid. "
-					+ "See nested exception for further details.";
-			throw new JUnitException(message, ex);
+			throw invalidPattern(ex);
 		}
 	}
 
+	private static JUnitException invalidPattern(IllegalArgumentException ex) {
+		String message = "The display name pattern defined for the parameterized test is invalid. "
+				+ "See nested exception for further details.";
+		return new JUnitException(message, ex);
+	}
+
 }
@@ -7,18 +7,41 @@ import org.junit.jupiter.api.extension.ParameterResolver;
 
 import java.lang.reflect.Executable;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 /**
  * @since 5.0
  */
 class RetriableParameterizedTestParameterResolver implements ParameterResolver {
 
+	private static final Object UNRESOLVED = new Object();
+
 	private final RetriableParameterizedTestMethodContext methodContext;
 	private final Object[] arguments;
+	private final Object[] resolvedParameters;
 
-	RetriableParameterizedTestParameterResolver(RetriableParameterizedTestMethodContext methodContext, Object[] arguments) {
+	/**
+	 * @param resolvedParameters - values resolved by earlier attempts of the argument set,
+	 * see {@link #resolvedParameters(int)}; {@code null} to resolve every parameter again
+	 */
+	RetriableParameterizedTestParameterResolver(RetriableParameterizedTestMethodContext methodContext, Object[] arguments,
+			Object[] resolvedParameters) {
 		this.methodContext = methodContext;
 		this.arguments = arguments;
+		this.resolvedParameters = resolvedParameters;
+	}
+
+	/**
+	 * Create the memo of the resolved parameters of one argument set, shared by the resolvers of all its attempts.
+	 * Attempts of an argument set never overlap, so the memo needs no synchronization.
+	 *
+	 * @param parameterCount - number of parameters of the test method
+	 * @return memo without resolved parameters
+	 */
+	static Object[] resolvedParameters(int parameterCount) {
+		Object[] resolvedParameters = new Object[parameterCount];
+		Arrays.fill(resolvedParameters, UNRESOLVED);
+		return resolvedParameters;
 	}
 
 	@Override
@@ -50,7 +73,14 @@ class RetriableParameterizedTestParameterResolver implements ParameterResolver {
 	public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext)
 			throws ParameterResolutionException {
 
-		return this.methodContext.resolve(parameterContext, this.arguments);
+		if (this.resolvedParameters == null) {
+			return this.methodContext.resolve(parameterContext, this.arguments);
+		}
+		int index = parameterContext.getIndex();
+		if (this.resolvedParameters[index] == UNRESOLVED) {
+			this.resolvedParameters[index] = this.methodContext.resolve(parameterContext, this.arguments);
+		}
+		return this.resolvedParameters[index];
 	}
 
 }
@@ -1,44 +1,72 @@
 package com.github.jaqat.junit5.extension.retriable.parametrized;
 
-import com.github.jaqat.junit5.extension.retriable.single.RetriableException;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptEvent.Decision;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptLedger;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeout;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeoutException;
+import com.github.jaqat.junit5.extension.retriable.common.FlakeHistory;
+import com.github.jaqat.junit5.extension.retriable.common.RetryBudget;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListeners;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
 import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.TestExecutionExceptionHandler;
+import org.junit.platform.commons.util.ExceptionUtils;
 import org.opentest4j.TestAbortedException;
 
-import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
-class RetriableParametrizedInstanceExtension implements AfterTestExecutionCallback, TestExecutionExceptionHandler {
+class RetriableParametrizedInstanceExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback,
+        TestExecutionExceptionHandler {
     
     private AtomicInteger currentRepetition;
     private Integer maximumRepeats;
     private int minSuccess;
-    private List<Class<? extends Throwable>> repeatableExceptions;
+    private final RetryPolicy policy;
     private AtomicBoolean repeatableExceptionAppeared;
-    private final List<Boolean> historyExceptionAppear;
+    private final AttemptLedger ledger;
+    
+    // a new instance serves every attempt, so it keeps the timing and the decision of its attempt
+    private long startedAt = -1;
+    private Throwable failure;
+    private Decision decision;
+    private AttemptTimeout timeout;
     
     RetriableParametrizedInstanceExtension(
             AtomicInteger currentRepetition,
-            int maximumRepeats,
-            int minSuccess,
-            List<Class<? extends Throwable>> assertionClasses,
+            RetryPolicy policy,
             AtomicBoolean repeatableExceptionAppeared,
-            List<Boolean> historyExceptionAppear
+            AttemptLedger ledger
     ) {
         this.currentRepetition = currentRepetition;
-        this.maximumRepeats = maximumRepeats;
-        this.minSuccess = minSuccess;
-        this.repeatableExceptions = assertionClasses;
+        this.maximumRepeats = policy.repeats();
+        this.minSuccess = policy.minSuccess();
+        this.policy = policy;
         this.repeatableExceptionAppeared = repeatableExceptionAppeared;
-        this.historyExceptionAppear = historyExceptionAppear;
+        this.ledger = ledger;
     }
     
     private ExtensionContext.Store getStore(ExtensionContext context) {
         return context.getStore(ExtensionContext.Namespace.create(getClass(), context.getRequiredTestMethod()));
     }
     
+    @Override
+    public void beforeTestExecution(ExtensionContext extensionContext) throws Exception {
+        if (currentRepetition.get() == 1) {
+            RetryBudget.of(extensionContext).firstAttemptStarted();
+        }
+        RetryListeners listeners = RetryListeners.of(extensionContext);
+        if (FlakeHistory.of(extensionContext).isEnabled() || listeners.isEnabled()) {
+            startedAt = System.nanoTime();
+            if (listeners.isEnabled()) {
+                listeners.attemptStarted(extensionContext, currentRepetition.get(), maximumRepeats);
+            }
+        }
+        timeout = AttemptTimeout.start(policy.attemptTimeout());
+    }
+    
     /**
      * Check if exceptions that will appear in test same as we wait
      *
@@ -47,38 +75,109 @@ class RetriableParametrizedInstanceExtension implements AfterTestExecutionCallba
      */
     @Override
     public void afterTestExecution(ExtensionContext extensionContext) throws Exception {
-        boolean exceptionAppeared = exceptionAppeared(extensionContext);
-        historyExceptionAppear.add(exceptionAppeared);
+        Throwable executionException = extensionContext.getExecutionException().orElse(null);
+        Throwable lateFailure = null;
+        AttemptTimeoutException timedOut = timedOut();
+        if (executionException == null && timedOut != null) {
+            // the attempt swallowed the interrupt of the watchdog and returned late, so it failed all the same
+            try {
+                attemptFailed(extensionContext, timedOut);
+            } catch (Throwable throwable) {
+                lateFailure = throwable;
+                executionException = throwable;
+            }
+        }
+        attemptEnded(extensionContext, executionException);
+        if (lateFailure != null) {
+            throw ExceptionUtils.throwAsUncheckedException(lateFailure);
+        }
     }
     
-    private boolean exceptionAppeared(ExtensionContext extensionContext) {
-        Class<? extends Throwable> exception = extensionContext.getExecutionException()
-                .orElse(new RetriableException("There is no exception in context")).getClass();
-        return repeatableExceptions.stream()
-                .anyMatch(ex -> ex.isAssignableFrom(exception) && !RetriableException.class.isAssignableFrom(exception));
+    private void attemptEnded(ExtensionContext extensionContext, Throwable executionException) {
+        if (policy.isFailure(executionException)) {
+            ledger.recordFailure();
+        } else {
+            ledger.recordSuccess();
+        }
+        if (startedAt < 0) {
+            return;
+        }
+        long duration = System.nanoTime() - startedAt;
+        boolean failed = executionException != null;
+        if (failed) {
+            ledger.recordFailedTime(duration);
+        }
+        FlakeHistory history = FlakeHistory.of(extensionContext);
+        if (history.isEnabled()) {
+            // all cases of the template share one history entry
+            history.record(FlakeHistory.key(extensionContext.getParent().get().getUniqueId()), failed, duration);
+        }
+        RetryListeners listeners = RetryListeners.of(extensionContext);
+        if (listeners.isEnabled()) {
+            int attempt = currentRepetition.get();
+            if (decision == null) {
+                // the attempt passed; the case goes on only if earlier attempts failed and more successes are needed
+                decision = ledger.hasFailures() && ledger.successes() < minSuccess && !ledger.retriesDenied()
+                        && attempt < maximumRepeats ? Decision.RETRY : Decision.PASS;
+            }
+            listeners.attemptFinished(extensionContext, attempt, maximumRepeats, duration, ledger.failedNanos(),
+                    failure, decision, decision != Decision.RETRY);
+        }
     }
     
     private boolean appearedExceptionDoesNotAllowRepetitions(Throwable appearedException) {
-        return repeatableExceptions.stream().noneMatch(ex -> ex.isAssignableFrom(appearedException.getClass()));
+        return !policy.isRepeatable(appearedException);
     }
-
+    
+    /**
+     * Stop the {@link AttemptTimeout} of the attempt, if any
+     *
+     * @return exception of an expired attempt, null otherwise
+     */
+    private AttemptTimeoutException timedOut() {
+        return timeout == null ? null : timeout.stop();
+    }
+    
     private boolean isMinSuccessTargetStillReachable(long minSuccessCount) {
-        return historyExceptionAppear.stream().filter(bool -> bool).count() < maximumRepeats - minSuccessCount;
+        return ledger.failures() < maximumRepeats - minSuccessCount;
     }
     
     @Override
     public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
+        AttemptTimeoutException timedOut = timedOut();
+        if (timedOut != null) {
+            // the attempt failed because the watchdog interrupted it
+            timedOut.addSuppressed(throwable);
+            throwable = timedOut;
+        }
+        attemptFailed(context, throwable);
+    }
+    
+    /**
+     * Decide on a failed attempt: throw {@link TestAbortedException} if it is retried,
+     * the failure itself if the case failed, and return if the case passed nonetheless
+     */
+    private void attemptFailed(ExtensionContext context, Throwable throwable) throws Throwable {
+        failure = throwable;
         if (appearedExceptionDoesNotAllowRepetitions(throwable)) {
+            decision = Decision.FINAL_FAIL;
             throw throwable;
         }
         this.repeatableExceptionAppeared.set(true);
-        long currentSuccessCount = historyExceptionAppear.stream().filter(exceptionAppeared -> !exceptionAppeared).count();
-        if (currentSuccessCount < minSuccess) {
+        if (ledger.successes() < minSuccess) {
             if (isMinSuccessTargetStillReachable(minSuccess)) {
-                throw new TestAbortedException("Do not fail completely but repeat the test", throwable);
+                if (RetryBudget.of(context).tryAcquireRetry()) {
+                    decision = Decision.RETRY;
+                    throw new TestAbortedException("Do not fail completely but repeat the test", throwable);
+                }
+                ledger.denyRetries();
+                decision = Decision.FINAL_FAIL;
+                throw throwable;
             } else {
+                decision = Decision.FINAL_FAIL;
                 throw throwable;
             }
         }
+        decision = Decision.PASS;
     }
 }
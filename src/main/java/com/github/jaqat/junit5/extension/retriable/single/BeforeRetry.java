@@ -0,0 +1,16 @@
+package com.github.jaqat.junit5.extension.retriable.single;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a no-argument method of the test class that resets the test instance before
+ * every retry of a {@link RetriableTest#reuseInstance()} test. Methods of superclasses run first.
+ * An exception thrown by the method fails the attempt like an exception of the test method.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BeforeRetry {
+}
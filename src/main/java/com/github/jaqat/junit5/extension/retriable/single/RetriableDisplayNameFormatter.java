@@ -19,4 +19,12 @@ class RetriableDisplayNameFormatter {
         }
     }
     
+    String formatRun(int currentRun, int totalRuns) {
+        return displayName.concat(" [Run " + currentRun + "/" + totalRuns + "]");
+    }
+    
+    String formatWarmup(int currentWarmup, int totalWarmups) {
+        return displayName.concat(" [Warmup " + currentWarmup + "/" + totalWarmups + "]");
+    }
+    
 }
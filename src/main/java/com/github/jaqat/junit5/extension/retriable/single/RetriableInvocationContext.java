@@ -1,12 +1,14 @@
 package com.github.jaqat.junit5.extension.retriable.single;
 
+import com.github.jaqat.junit5.extension.retriable.common.AttemptLedger;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTracker;
 import com.github.jaqat.junit5.extension.retriable.common.RepeatExecutionCondition;
 import org.junit.jupiter.api.extension.*;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-import static java.util.Collections.singletonList;
-
 public class RetriableInvocationContext implements TestTemplateInvocationContext {
 
     private final int currentRepetition;
@@ -15,20 +17,41 @@ public class RetriableInvocationContext implements TestTemplateInvocationContext
     private final int minSuccess;
     private final boolean repeatableExceptionAppeared;
     private final RetriableDisplayNameFormatter formatter;
+    private final AttemptTracker attemptTracker;
+    private final AttemptLedger hedgedLedger;
+    private final boolean judgedRun;
+
+    RetriableInvocationContext(int currentRepetition, int totalRepetitions, int successfulTestRepetitionsCount,
+                               int minSuccess, boolean repeatableExceptionAppeared,
+                               RetriableDisplayNameFormatter formatter, AttemptTracker attemptTracker,
+                               AttemptLedger hedgedLedger) {
+        this(currentRepetition, totalRepetitions, successfulTestRepetitionsCount, minSuccess,
+                repeatableExceptionAppeared, formatter, attemptTracker, hedgedLedger, false);
+    }
 
+    /**
+     * @param judgedRun - true for a run of a stability or latency test, which always runs and is judged with all other runs
+     */
     RetriableInvocationContext(int currentRepetition, int totalRepetitions, int successfulTestRepetitionsCount,
                                int minSuccess, boolean repeatableExceptionAppeared,
-                               RetriableDisplayNameFormatter formatter) {
+                               RetriableDisplayNameFormatter formatter, AttemptTracker attemptTracker,
+                               AttemptLedger hedgedLedger, boolean judgedRun) {
         this.currentRepetition = currentRepetition;
         this.totalRepetitions = totalRepetitions;
         this.successfulTestRepetitionsCount = successfulTestRepetitionsCount;
         this.minSuccess = minSuccess;
         this.repeatableExceptionAppeared = repeatableExceptionAppeared;
         this.formatter = formatter;
+        this.attemptTracker = attemptTracker;
+        this.hedgedLedger = hedgedLedger;
+        this.judgedRun = judgedRun;
     }
 
     @Override
     public String getDisplayName(int invocationIndex) {
+        if (judgedRun) {
+            return this.formatter.formatRun(this.currentRepetition, this.totalRepetitions);
+        }
         String name =  this.formatter.format(this.currentRepetition, this.totalRepetitions, this.repeatableExceptionAppeared);
         return name;
 //        return this.formatter.format(this.currentRepetition, this.totalRepetitions, this.repeatableExceptionAppeared);
@@ -36,8 +59,15 @@ public class RetriableInvocationContext implements TestTemplateInvocationContext
 
     @Override
     public List<Extension> getAdditionalExtensions() {
-        return singletonList(new RepeatExecutionCondition(currentRepetition, totalRepetitions, minSuccess,
-                successfulTestRepetitionsCount, repeatableExceptionAppeared));
+        if (judgedRun) {
+            return Collections.singletonList(attemptTracker.completionCondition());
+        }
+        // hedged attempts may overlap, so they are judged by the outcomes known when they start
+        RepeatExecutionCondition condition = hedgedLedger != null
+                ? new RepeatExecutionCondition(totalRepetitions, minSuccess, hedgedLedger)
+                : new RepeatExecutionCondition(currentRepetition, totalRepetitions, minSuccess,
+                        successfulTestRepetitionsCount, repeatableExceptionAppeared);
+        return Arrays.asList(attemptTracker.completionCondition(), condition);
     }
     
 }
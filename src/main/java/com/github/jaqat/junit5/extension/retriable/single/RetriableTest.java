@@ -1,5 +1,10 @@
 package com.github.jaqat.junit5.extension.retriable.single;
 
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeout;
+import com.github.jaqat.junit5.extension.retriable.common.Backoff;
+import com.github.jaqat.junit5.extension.retriable.common.Hedge;
+import com.github.jaqat.junit5.extension.retriable.common.LatencyBudget;
+import com.github.jaqat.junit5.extension.retriable.common.Quarantine;
 import org.junit.jupiter.api.TestInfo;
 import org.junit.jupiter.api.TestTemplate;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +14,14 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Retries a failed test method.
+ * <p>
+ * On a class the policy applies to every {@code @Test} method of the class without parameters: failed attempts
+ * are retried in place like with {@link #reuseInstance()}, so only the failed methods run again and the resources
+ * of {@code @BeforeAll} methods are kept. Test templates of the class and methods annotated themselves are left alone.
+ * A class supports neither {@link #warmup()}, {@link #hedge()} nor a {@link #mode()} other than {@link Mode#RETRY}.
+ */
 @Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 @TestTemplate
@@ -18,6 +31,25 @@ public @interface RetriableTest {
     String DISPLAY_NAME_PLACEHOLDER = "{displayName}";
     
     String DEFAULT_DISPLAY_NAME = DISPLAY_NAME_PLACEHOLDER;
+    
+    enum Mode {
+        /**
+         * Retry a failed attempt until {@link #minSuccess()} attempts passed
+         */
+        RETRY,
+        /**
+         * Run all {@link #repeats()} attempts, concurrently under Jupiter parallel execution, and fail the test
+         * if fewer than {@link #requiredPassRate()} of them passed. Failed runs are reported as aborted;
+         * the last finished run reports the pass rate with its 95% Wilson confidence interval.
+         */
+        STABILITY,
+        /**
+         * Run all {@link #repeats()} attempts one after another and fail the test if their durations exceed
+         * the {@link #latency()} budget. A failed attempt fails the test right away; the last attempt reports
+         * the p50, p99 and maximum duration.
+         */
+        LATENCY
+    }
 
     /**
      * Pool of exceptions
@@ -42,4 +74,63 @@ public @interface RetriableTest {
      * @return Short name
      */
     String name() default DEFAULT_DISPLAY_NAME;
+
+    /**
+     * Delay between a failed attempt and its retry
+     * @return Backoff, no delay by default
+     */
+    Backoff backoff() default @Backoff;
+
+    /**
+     * Speculative attempts racing with a slow attempt
+     * @return Hedge, attempts run one after another by default
+     */
+    Hedge hedge() default @Hedge;
+
+    /**
+     * Known-flaky test that runs in the quarantine lane, see {@link Quarantine}
+     * @return true if the test is quarantined
+     */
+    boolean quarantined() default false;
+
+    /**
+     * Timeout of every attempt in milliseconds; a hung attempt is interrupted and retried, see {@link AttemptTimeout}
+     * @return Timeout, attempts are not watched by default
+     */
+    long attemptTimeout() default 0;
+
+    /**
+     * Retry failed attempts in place: the test instance and the fixtures of its {@code @BeforeEach} methods
+     * are kept for all attempts and torn down once after the last one. Methods annotated with {@link BeforeRetry}
+     * reset the instance before every retry. The test method must not declare parameters and cannot be hedged.
+     * @return true to keep the test instance, a new instance serves every attempt by default
+     */
+    boolean reuseInstance() default false;
+
+    /**
+     * How the attempts are judged
+     * @return Mode, retries by default
+     */
+    Mode mode() default Mode.RETRY;
+
+    /**
+     * Share of the attempts that has to pass in {@link Mode#STABILITY}
+     * @return Pass rate between 0 and 1, all attempts by default
+     */
+    double requiredPassRate() default 1;
+
+    /**
+     * Budget of the attempt durations in {@link Mode#LATENCY}
+     * @return LatencyBudget, durations are only reported by default
+     */
+    LatencyBudget latency() default @LatencyBudget;
+
+    /**
+     * Warm-up attempts that run one after another ahead of the {@link #repeats()}, e.g. to let the JIT compile
+     * the code under test. They are shown as {@code [Warmup n/total]}, a failed one is reported as aborted, and
+     * neither their outcomes nor their durations count toward {@link #minSuccess()}, the pass rate or the latency.
+     * Only supported on methods.
+     * @return Number of warm-up attempts, none by default
+     */
+    int warmup() default 0;
 }
@@ -1,29 +1,58 @@
 package com.github.jaqat.junit5.extension.retriable.single;
 
-import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptEvent.Decision;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptLedger;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeout;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeoutException;
+import com.github.jaqat.junit5.extension.retriable.common.BackoffPolicy;
+import com.github.jaqat.junit5.extension.retriable.common.FlakeHistory;
+import com.github.jaqat.junit5.extension.retriable.common.LatencyHistogram;
+import com.github.jaqat.junit5.extension.retriable.common.PassRate;
+import com.github.jaqat.junit5.extension.retriable.common.Quarantine;
+import com.github.jaqat.junit5.extension.retriable.common.RetryBudget;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListener;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListeners;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.*;
+import org.junit.platform.commons.util.BlacklistedExceptions;
+import org.junit.platform.commons.util.ExceptionUtils;
 import org.junit.platform.commons.util.Preconditions;
+import org.junit.platform.commons.util.ReflectionUtils;
+import org.opentest4j.AssertionFailedError;
 import org.opentest4j.TestAbortedException;
 
+import java.lang.reflect.Method;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
-import static java.lang.Math.toIntExact;
 import static java.util.Spliterators.spliteratorUnknownSize;
 import static java.util.stream.StreamSupport.stream;
-import static org.junit.platform.commons.util.AnnotationUtils.findAnnotation;
+import static org.junit.platform.commons.util.AnnotationUtils.findAnnotatedMethods;
 import static org.junit.platform.commons.util.AnnotationUtils.isAnnotated;
+import static org.junit.platform.commons.util.ReflectionUtils.HierarchyTraversalMode.TOP_DOWN;
 
-public class RetriableTestExtension implements TestTemplateInvocationContextProvider, BeforeTestExecutionCallback,
-        AfterTestExecutionCallback, TestExecutionExceptionHandler {
+/**
+ * The extension keeps no state in its fields: one instance may serve several test methods at once
+ * when Jupiter parallel execution is enabled, so the retry state of every method is kept
+ * in {@link RetriableTestState} inside the store of the test template context.
+ * <p>
+ * On a class the extension retries the {@code @Test} methods of the class in place, see {@link RetryPolicy#forClass(Class)};
+ * their state is kept in the store of the test method context.
+ */
+public class RetriableTestExtension implements TestTemplateInvocationContextProvider, ExecutionCondition,
+        BeforeTestExecutionCallback, AfterTestExecutionCallback, TestExecutionExceptionHandler {
     
-    private Integer totalRepeats;
-    private int minSuccess = 1;
-    private List<Class<? extends Throwable>> repeatableExceptions;
-    private boolean repeatableExceptionAppeared = false;
-    private RetriableDisplayNameFormatter formatter;
-    private List<Boolean> historyExceptionAppear;
+    private static final String STATE_KEY = "state";
+    private static final ExtensionContext.Namespace ATTEMPT_NAMESPACE =
+            ExtensionContext.Namespace.create(RetriableTestExtension.class);
+    private static final String STARTED_AT_KEY = "startedAt";
+    private static final String ATTEMPT_KEY = "attempt";
+    private static final String FAILURE_KEY = "failure";
+    private static final String DECISION_KEY = "decision";
+    private static final String VERDICT_PENDING_KEY = "verdictPending";
+    private static final String TIMEOUT_KEY = "timeout";
     
     /**
      * Check that test method contain {@link RetriableTest} annotation
@@ -47,33 +76,102 @@ public class RetriableTestExtension implements TestTemplateInvocationContextProv
     public Stream<TestTemplateInvocationContext> provideTestTemplateInvocationContexts(ExtensionContext extensionContext) {
         Preconditions.notNull(extensionContext.getTestMethod().orElse(null), "Test method must not be null");
         
-        String displayName = extensionContext.getDisplayName();
-        
-        RetriableTest annotationParams = extensionContext.getTestMethod()
-                .flatMap(testMethods -> findAnnotation(testMethods, RetriableTest.class))
-                .orElseThrow(() -> new RetriableException("The extension should not be executed "
-                        + "unless the test method is annotated with @REtriableTest."));
-        totalRepeats = annotationParams.repeats();
-        formatter = displayNameFormatter(annotationParams, displayName);
-        
-        historyExceptionAppear = Collections.synchronizedList(new ArrayList<>());
-        Preconditions.condition(totalRepeats > 0, "Total repeats must be higher than 0");
-        Preconditions.condition(minSuccess >= 1, "Total minimum success must be higher or equals than 1");
+        RetriableTestState state = createState(extensionContext,
+                RetryPolicy.forMethod(extensionContext.getRequiredTestMethod()));
+        getStore(extensionContext).put(STATE_KEY, state);
         
         //Convert logic of repeated handler to spliterator
         Spliterator<TestTemplateInvocationContext> spliterator =
-                spliteratorUnknownSize(new TestTemplateIterator(), Spliterator.NONNULL);
+                spliteratorUnknownSize(new TestTemplateIterator(state), Spliterator.NONNULL);
         return stream(spliterator, false);
     }
     
+    /**
+     * Skip the test if it belongs to the other {@link Quarantine} lane
+     *
+     * @param context - test template or invocation context
+     * @return enabled unless the test runs in the other lane
+     */
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        Optional<Method> method = context.getTestMethod();
+        if (isAnnotated(method, RetriableTest.class)) {
+            return Quarantine.of(context).evaluate(method.get(), RetryPolicy.forMethod(method.get()));
+        }
+        if (isClassLevelTest(context)) {
+            return Quarantine.of(context).evaluate(method.get(), RetryPolicy.forClass(context.getRequiredTestClass()).get());
+        }
+        return ConditionEvaluationResult.enabled("Not a retriable test");
+    }
+    
+    /**
+     * Retry state of the test method; invocation contexts find it in the store of their parent
+     *
+     * @param context - test template or invocation context
+     * @return state of the current test method
+     */
+    private RetriableTestState getState(ExtensionContext context) {
+        RetriableTestState state = getStore(context).get(STATE_KEY, RetriableTestState.class);
+        if (state == null && isClassLevelTest(context)) {
+            state = getStore(context).getOrComputeIfAbsent(STATE_KEY,
+                    key -> createState(context, RetryPolicy.forClass(context.getRequiredTestClass()).get()),
+                    RetriableTestState.class);
+        }
+        return state;
+    }
+    
+    /**
+     * A {@code @Test} method of a class annotated with {@link RetriableTest}; other methods of the class,
+     * like test templates or methods with parameters, are left alone
+     */
+    private static boolean isClassLevelTest(ExtensionContext context) {
+        Optional<Method> method = context.getTestMethod();
+        return method.isPresent() && isAnnotated(method, Test.class) && method.get().getParameterCount() == 0
+                && !isAnnotated(method, RetriableTest.class)
+                && RetryPolicy.forClass(context.getRequiredTestClass()).isPresent();
+    }
+    
+    private RetriableTestState createState(ExtensionContext context, RetryPolicy annotatedPolicy) {
+        long historyKey = FlakeHistory.key(context.getUniqueId());
+        // stability and latency tests always run all of their repeats
+        RetryPolicy policy = annotatedPolicy.isStability() || annotatedPolicy.isLatency() ? annotatedPolicy
+                : Quarantine.of(context).adapt(FlakeHistory.of(context).adapt(historyKey, annotatedPolicy));
+        return new RetriableTestState(policy, displayNameFormatter(policy, context.getDisplayName()),
+                FlakeHistory.of(context), historyKey, RetryListeners.of(context));
+    }
+    
+    private ExtensionContext.Store getStore(ExtensionContext context) {
+        return context.getStore(ExtensionContext.Namespace.create(RetriableTestExtension.class, context.getRequiredTestMethod()));
+    }
+    
     @Override
-    public void beforeTestExecution(ExtensionContext context) throws Exception {
-        repeatableExceptions = Stream.of(context.getTestMethod()
-                .flatMap(testMethods -> findAnnotation(testMethods, RetriableTest.class))
-                .orElseThrow(() -> new IllegalStateException("The extension should not be executed "))
-                .exceptions()
-        ).collect(Collectors.toList());
-        repeatableExceptions.add(TestAbortedException.class);
+    public void beforeTestExecution(ExtensionContext extensionContext) throws Exception {
+        RetriableTestState state = getState(extensionContext);
+        if (state == null) {
+            return;
+        }
+        AttemptTimeout timeout = AttemptTimeout.start(state.policy.attemptTimeout());
+        if (timeout != null) {
+            extensionContext.getStore(ATTEMPT_NAMESPACE).put(TIMEOUT_KEY, timeout);
+        }
+        if (WarmupInvocationContext.isWarmup(extensionContext)) {
+            return;
+        }
+        if (state.policy.isHedged()) {
+            state.attemptStarted();
+        }
+        if (state.firstAttemptCredited.compareAndSet(false, true)) {
+            RetryBudget.of(extensionContext).firstAttemptStarted();
+        }
+        if (state.history.isEnabled() || state.listeners.isEnabled() || state.latency != null) {
+            ExtensionContext.Store attemptStore = extensionContext.getStore(ATTEMPT_NAMESPACE);
+            attemptStore.put(STARTED_AT_KEY, System.nanoTime());
+            if (state.listeners.isEnabled()) {
+                int attempt = state.startedAttempts.incrementAndGet();
+                attemptStore.put(ATTEMPT_KEY, attempt);
+                state.listeners.attemptStarted(extensionContext, attempt, state.totalRepeats);
+            }
+        }
     }
     
     /**
@@ -84,81 +182,497 @@ public class RetriableTestExtension implements TestTemplateInvocationContextProv
      */
     @Override
     public void afterTestExecution(ExtensionContext extensionContext) throws Exception {
-        boolean exceptionAppeared = exceptionAppeared(extensionContext);
-        historyExceptionAppear.add(exceptionAppeared);
+        RetriableTestState state = getState(extensionContext);
+        if (state == null) {
+            return;
+        }
+        Throwable executionException = extensionContext.getExecutionException().orElse(null);
+        Throwable lateFailure = null;
+        AttemptTimeoutException timeout = timedOut(extensionContext);
+        if (executionException == null && timeout != null) {
+            // the attempt swallowed the interrupt of the watchdog and returned late, so it failed all the same
+            try {
+                attemptFailed(state, extensionContext, timeout);
+            } catch (Throwable throwable) {
+                lateFailure = throwable;
+                executionException = throwable;
+            }
+        }
+        attemptEnded(state, extensionContext, executionException);
+        if (lateFailure != null) {
+            throw ExceptionUtils.throwAsUncheckedException(lateFailure);
+        }
+    }
+    
+    private void attemptEnded(RetriableTestState state, ExtensionContext extensionContext, Throwable executionException) {
+        if (WarmupInvocationContext.isWarmup(extensionContext)) {
+            return;
+        }
+        if (state.policy.isStability()) {
+            try {
+                if (executionException == null) {
+                    runFinished(state, extensionContext, null);
+                }
+            } finally {
+                if (state.history.isEnabled() || state.listeners.isEnabled()) {
+                    attemptFinished(state, extensionContext, executionException);
+                }
+            }
+            return;
+        }
+        if (state.latency != null) {
+            try {
+                if (executionException != null) {
+                    state.ledger.recordFailure();
+                } else {
+                    timedRunFinished(state, extensionContext);
+                }
+            } finally {
+                if (state.history.isEnabled() || state.listeners.isEnabled()) {
+                    attemptFinished(state, extensionContext, executionException);
+                }
+            }
+            return;
+        }
+        if (state.policy.isHedged()) {
+            state.attemptEnded();
+        }
+        if (state.policy.isFailure(executionException)) {
+            state.ledger.recordFailure();
+        } else {
+            state.ledger.recordSuccess();
+            if (state.policy.isHedged() && state.ledger.successes() >= state.minSuccess) {
+                state.cancelRunningAttempts();
+            }
+        }
+        if (state.history.isEnabled() || state.listeners.isEnabled()) {
+            attemptFinished(state, extensionContext, executionException);
+        }
     }
     
-    private boolean exceptionAppeared(ExtensionContext extensionContext) {
-        Class<? extends Throwable> exception = extensionContext.getExecutionException()
-                .orElse(new RetriableException("There is no exception in context")).getClass();
-        return repeatableExceptions.stream()
-                .anyMatch(ex -> ex.isAssignableFrom(exception) && !RetriableException.class.isAssignableFrom(exception));
+    private void attemptFinished(RetriableTestState state, ExtensionContext extensionContext, Throwable executionException) {
+        ExtensionContext.Store attemptStore = extensionContext.getStore(ATTEMPT_NAMESPACE);
+        Long startedAt = attemptStore.get(STARTED_AT_KEY, Long.class);
+        if (startedAt == null) {
+            return;
+        }
+        long duration = System.nanoTime() - startedAt;
+        boolean failed = executionException != null;
+        if (failed) {
+            state.ledger.recordFailedTime(duration);
+        }
+        if (state.history.isEnabled()) {
+            state.history.record(state.historyKey, failed, duration);
+        }
+        if (state.listeners.isEnabled()) {
+            int attempt = attemptStore.get(ATTEMPT_KEY, Integer.class);
+            Decision decision = attemptStore.get(DECISION_KEY, Decision.class);
+            if (decision == null) {
+                // the attempt passed; the test goes on only if earlier attempts failed and more successes are needed
+                decision = state.ledger.hasFailures() && state.ledger.successes() < state.minSuccess
+                        && !state.ledger.retriesDenied() && attempt < state.totalRepeats ? Decision.RETRY : Decision.PASS;
+            }
+            boolean testFinished = decision != Decision.RETRY && attemptStore.get(VERDICT_PENDING_KEY) == null
+                    && state.finalReported.compareAndSet(false, true);
+            state.listeners.attemptFinished(extensionContext, attempt, state.totalRepeats, duration,
+                    state.ledger.failedNanos(), attemptStore.get(FAILURE_KEY, Throwable.class), decision, testFinished);
+        }
     }
     
     /**
      * Handler for display name
      *
-     * @param test        - RepeatedIfExceptionsTest annotation
+     * @param policy      - cached policy of the test method
      * @param displayName - Name that will be represent to report
      * @return RepeatedIfExceptionsDisplayNameFormatter {@link RetriableDisplayNameFormatter}
      */
-    private RetriableDisplayNameFormatter displayNameFormatter(RetriableTest test, String displayName) {
-        String pattern = Preconditions.notBlank(test.name().trim(),
-                () -> "Configuration error: @RepeatedByExceptionsExtension must be declared with a non-empty name.");
-        return new RetriableDisplayNameFormatter(pattern, displayName);
-    }
-    
-    private RetriableDisplayNameFormatter displayNameFormatter(RetriableParameterizedTest test, String displayName) {
-        String pattern = Preconditions.notBlank(test.name().trim(),
-                () -> "Configuration error: @RepeatedByExceptionsExtension must be declared with a non-empty name.");
-        return new RetriableDisplayNameFormatter(pattern, displayName);
+    private RetriableDisplayNameFormatter displayNameFormatter(RetryPolicy policy, String displayName) {
+        return new RetriableDisplayNameFormatter(policy.name(), displayName);
     }
     
     @Override
     public void handleTestExecutionException(ExtensionContext context, Throwable throwable) throws Throwable {
-        if (appearedExceptionDoesNotAllowRepetitions(throwable)) {
+        RetriableTestState state = getState(context);
+        if (state == null) {
+            throw throwable;
+        }
+        AttemptTimeoutException timeout = timedOut(context);
+        if (timeout != null) {
+            // the attempt failed because the watchdog interrupted it
+            timeout.addSuppressed(throwable);
+            throwable = timeout;
+        }
+        attemptFailed(state, context, throwable);
+    }
+    
+    /**
+     * Decide on a failed attempt: throw {@link TestAbortedException} if it is retried,
+     * the failure itself if the test failed, and return if the test passed nonetheless
+     */
+    private void attemptFailed(RetriableTestState state, ExtensionContext context, Throwable throwable) throws Throwable {
+        if (WarmupInvocationContext.isWarmup(context)) {
+            throw new TestAbortedException("Failed warm-up attempt", throwable);
+        }
+        if (state.policy.reuseInstance()) {
+            retryInPlace(state, context, throwable);
+            return;
+        }
+        if (state.policy.isStability()) {
+            runFinished(state, context, throwable);
+            throw new TestAbortedException("Failed run of a stability test", throwable);
+        }
+        if (state.policy.isLatency()) {
+            // the durations of a broken test mean nothing, so it is neither retried nor timed any further
+            decided(state, context, throwable, Decision.FINAL_FAIL);
             throw throwable;
         }
-        repeatableExceptionAppeared = true;
-        long currentSuccessCount = historyExceptionAppear.stream().filter(exceptionAppeared -> !exceptionAppeared).count();
-        if (currentSuccessCount < minSuccess) {
-            if (isMinSuccessTargetStillReachable(minSuccess)) {
-                throw new TestAbortedException("Do not fail completely but repeat the test", throwable);
+        if (state.policy.isHedged() && state.ledger.successes() >= state.minSuccess) {
+            // a loser of the race, most likely interrupted by the winner
+            decided(state, context, throwable, Decision.PASS);
+            throw new TestAbortedException("Cancelled as a concurrent attempt already passed", throwable);
+        }
+        if (appearedExceptionDoesNotAllowRepetitions(state, throwable)) {
+            decided(state, context, throwable, Decision.FINAL_FAIL);
+            throw throwable;
+        }
+        state.repeatableExceptionAppeared = true;
+        if (state.ledger.successes() < state.minSuccess) {
+            if (isMinSuccessTargetStillReachable(state, state.minSuccess)) {
+                if (RetryBudget.of(context).tryAcquireRetry()) {
+                    decided(state, context, throwable, Decision.RETRY);
+                    throw new TestAbortedException("Do not fail completely but repeat the test", throwable);
+                }
+                state.ledger.denyRetries();
+                decided(state, context, throwable, Decision.FINAL_FAIL);
+                throw throwable;
             } else {
+                decided(state, context, throwable, Decision.FINAL_FAIL);
                 throw throwable;
             }
         }
+        decided(state, context, throwable, Decision.PASS);
     }
     
-    private boolean appearedExceptionDoesNotAllowRepetitions(Throwable appearedException) {
-        return repeatableExceptions.stream().noneMatch(ex -> ex.isAssignableFrom(appearedException.getClass()));
+    /**
+     * Record a run of a stability test; the last finished run judges the test by the pass rate of all runs
+     *
+     * @param failure - exception of the run, null if it passed
+     * @throws AssertionFailedError if this is the last run and too few runs passed
+     */
+    private void runFinished(RetriableTestState state, ExtensionContext context, Throwable failure) {
+        if (failure == null) {
+            state.ledger.recordSuccess();
+        } else {
+            state.ledger.recordFailure();
+        }
+        // every run is recorded before it is counted, so the last one sees all outcomes
+        int finished = state.finishedRuns.incrementAndGet();
+        if (finished < state.totalRepeats) {
+            if (failure == null) {
+                runPassed(state, context);
+            } else {
+                decided(state, context, failure, Decision.RETRY);
+            }
+            return;
+        }
+        PassRate passRate = new PassRate(state.ledger.successes(), finished);
+        Map<String, String> report = new LinkedHashMap<>();
+        report.put("retriable.stability.runs", String.valueOf(passRate.runs()));
+        report.put("retriable.stability.passes", String.valueOf(passRate.passes()));
+        report.put("retriable.stability.passRate", String.valueOf(passRate.rate()));
+        report.put("retriable.stability.lower", String.valueOf(passRate.lower()));
+        report.put("retriable.stability.upper", String.valueOf(passRate.upper()));
+        context.publishReportEntry(report);
+        if (passRate.rate() >= state.policy.requiredPassRate()) {
+            decided(state, context, failure, Decision.PASS);
+            return;
+        }
+        decided(state, context, failure, Decision.FINAL_FAIL);
+        throw new AssertionFailedError(String.format(Locale.ROOT, "%s: %s, required pass rate is %s",
+                context.getParent().map(ExtensionContext::getDisplayName).orElse(context.getDisplayName()),
+                passRate, state.policy.requiredPassRate()), failure);
+    }
+    
+    /**
+     * Record the duration of a passed run of a latency test; the last run judges the durations of all runs
+     *
+     * @throws AssertionFailedError if this is the last run and a percentile exceeds its budget
+     */
+    private void timedRunFinished(RetriableTestState state, ExtensionContext context) {
+        long duration = System.nanoTime() - context.getStore(ATTEMPT_NAMESPACE).get(STARTED_AT_KEY, Long.class);
+        state.latency.record(duration);
+        state.ledger.recordSuccess();
+        if (state.ledger.successes() < state.totalRepeats) {
+            runPassed(state, context);
+            return;
+        }
+        LatencyHistogram latency = state.latency;
+        long p50 = latency.percentile(50);
+        long p99 = latency.percentile(99);
+        long max = latency.max();
+        Map<String, String> report = new LinkedHashMap<>();
+        report.put("retriable.latency.runs", String.valueOf(latency.count()));
+        report.put("retriable.latency.p50Millis", millis(p50));
+        report.put("retriable.latency.p99Millis", millis(p99));
+        report.put("retriable.latency.maxMillis", millis(max));
+        context.publishReportEntry(report);
+        StringJoiner exceeded = new StringJoiner(", ");
+        checkBudget(exceeded, "p50", p50, state.policy.latencyP50());
+        checkBudget(exceeded, "p99", p99, state.policy.latencyP99());
+        checkBudget(exceeded, "max", max, state.policy.latencyMax());
+        if (exceeded.length() == 0) {
+            decided(state, context, null, Decision.PASS);
+            return;
+        }
+        decided(state, context, null, Decision.FINAL_FAIL);
+        throw new AssertionFailedError(String.format(Locale.ROOT, "%s: latency budget exceeded in %d runs: %s",
+                context.getParent().map(ExtensionContext::getDisplayName).orElse(context.getDisplayName()),
+                latency.count(), exceeded));
+    }
+    
+    private static void checkBudget(StringJoiner exceeded, String percentile, long nanos, long budgetNanos) {
+        if (budgetNanos > 0 && nanos > budgetNanos) {
+            exceeded.add(percentile + " " + millis(nanos) + " ms > " + millis(budgetNanos) + " ms");
+        }
+    }
+    
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000d);
+    }
+    
+    /**
+     * Retry a failed attempt on the same test instance, its before-each fixtures stay set up.
+     * Every attempt but the last one is recorded here; the invocation ends with the outcome
+     * of the last attempt, which {@link #afterTestExecution(ExtensionContext)} records as usual.
+     */
+    private void retryInPlace(RetriableTestState state, ExtensionContext context, Throwable throwable) throws Throwable {
+        Object testInstance = context.getRequiredTestInstance();
+        Method testMethod = context.getRequiredTestMethod();
+        Throwable failure = throwable;
+        while (true) {
+            if (failure != null) {
+                if (!state.policy.isRepeatable(failure) || !isMinSuccessTargetStillReachable(state, state.minSuccess)) {
+                    decided(state, context, failure, Decision.FINAL_FAIL);
+                    throw failure;
+                }
+                if (!RetryBudget.of(context).tryAcquireRetry()) {
+                    state.ledger.denyRetries();
+                    decided(state, context, failure, Decision.FINAL_FAIL);
+                    throw failure;
+                }
+                state.repeatableExceptionAppeared = true;
+                state.ledger.recordFailure();
+            } else if (state.ledger.successes() + 1 >= state.minSuccess) {
+                return;
+            } else {
+                state.ledger.recordSuccess();
+            }
+            if (state.history.isEnabled() || state.listeners.isEnabled()) {
+                attemptFinishedInPlace(state, context, failure);
+            }
+            failure = attemptInPlace(state, testInstance, testMethod);
+        }
+    }
+    
+    private Throwable attemptInPlace(RetriableTestState state, Object testInstance, Method testMethod) {
+        AttemptTimeout timeout = AttemptTimeout.start(state.policy.attemptTimeout());
+        try {
+            for (Method hook : findAnnotatedMethods(testInstance.getClass(), BeforeRetry.class, TOP_DOWN)) {
+                ReflectionUtils.invokeMethod(hook, testInstance);
+            }
+            ReflectionUtils.invokeMethod(testMethod, testInstance);
+            // an attempt that swallowed the interrupt and returned late failed all the same
+            return timeout == null ? null : timeout.stop();
+        } catch (Throwable throwable) {
+            BlacklistedExceptions.rethrowIfBlacklisted(throwable);
+            return timeout == null ? throwable : timeout.stop(throwable);
+        } finally {
+            if (timeout != null) {
+                timeout.stop();
+            }
+        }
     }
     
-    private boolean isMinSuccessTargetStillReachable(long minSuccessCount) {
-        return historyExceptionAppear.stream().filter(bool -> bool).count() < totalRepeats - minSuccessCount;
+    /**
+     * Report an attempt retried in place and start timing the next one
+     */
+    private void attemptFinishedInPlace(RetriableTestState state, ExtensionContext context, Throwable failure) {
+        ExtensionContext.Store attemptStore = context.getStore(ATTEMPT_NAMESPACE);
+        Long startedAt = attemptStore.get(STARTED_AT_KEY, Long.class);
+        if (startedAt == null) {
+            return;
+        }
+        long duration = System.nanoTime() - startedAt;
+        if (failure != null) {
+            state.ledger.recordFailedTime(duration);
+        }
+        if (state.history.isEnabled()) {
+            state.history.record(state.historyKey, failure != null, duration);
+        }
+        if (state.listeners.isEnabled()) {
+            int attempt = attemptStore.get(ATTEMPT_KEY, Integer.class);
+            state.listeners.attemptFinished(context, attempt, state.totalRepeats, duration,
+                    state.ledger.failedNanos(), failure, Decision.RETRY, false);
+            int nextAttempt = state.startedAttempts.incrementAndGet();
+            attemptStore.put(ATTEMPT_KEY, nextAttempt);
+            state.listeners.attemptStarted(context, nextAttempt, state.totalRepeats);
+        }
+        attemptStore.put(STARTED_AT_KEY, System.nanoTime());
+    }
+    
+    /**
+     * Stop the {@link AttemptTimeout} of the attempt, if any
+     *
+     * @return exception of an expired attempt, null otherwise
+     */
+    private AttemptTimeoutException timedOut(ExtensionContext context) {
+        AttemptTimeout timeout = context.getStore(ATTEMPT_NAMESPACE).get(TIMEOUT_KEY, AttemptTimeout.class);
+        return timeout == null ? null : timeout.stop();
+    }
+    
+    /**
+     * Keep the decision about a failed attempt for the {@link RetryListener}s notified after the attempt
+     */
+    private void decided(RetriableTestState state, ExtensionContext context, Throwable throwable, Decision decision) {
+        if (state.listeners.isEnabled()) {
+            ExtensionContext.Store attemptStore = context.getStore(ATTEMPT_NAMESPACE);
+            attemptStore.put(FAILURE_KEY, throwable);
+            attemptStore.put(DECISION_KEY, decision);
+        }
+    }
+    
+    /**
+     * Keep a passed run of a test that gives its verdict after the last run, the run is neither retried nor final
+     */
+    private void runPassed(RetriableTestState state, ExtensionContext context) {
+        if (state.listeners.isEnabled()) {
+            ExtensionContext.Store attemptStore = context.getStore(ATTEMPT_NAMESPACE);
+            attemptStore.put(DECISION_KEY, Decision.PASS);
+            attemptStore.put(VERDICT_PENDING_KEY, Boolean.TRUE);
+        }
+    }
+    
+    private boolean appearedExceptionDoesNotAllowRepetitions(RetriableTestState state, Throwable appearedException) {
+        return !state.policy.isRepeatable(appearedException);
+    }
+    
+    private boolean isMinSuccessTargetStillReachable(RetriableTestState state, long minSuccessCount) {
+        return state.ledger.failures() < state.totalRepeats - minSuccessCount;
     }
     
     /**
      * TestTemplateIterator (Repeat test if it failed)
      */
-    class TestTemplateIterator implements Iterator<TestTemplateInvocationContext> {
+    static class TestTemplateIterator implements Iterator<TestTemplateInvocationContext> {
+        private final RetriableTestState state;
         int currentIndex = 0;
+        private int warmupIndex = 0;
+        private int backedOffBefore = 1;
+        private long lastBackoffDelay = 0;
+        private boolean hedgedAttemptPending;
+        private long lastAttemptStartedAt;
+        
+        TestTemplateIterator(RetriableTestState state) {
+            this.state = state;
+        }
         
         @Override
         public boolean hasNext() {
+            // warm-up attempts run one after another and are all done before the first counted attempt starts
+            if (warmupIndex < state.policy.warmup()) {
+                state.warmupTracker.awaitFinished(warmupIndex);
+                return true;
+            }
             if (currentIndex == 0) {
+                state.warmupTracker.awaitFinished(warmupIndex);
                 return true;
             }
-            return historyExceptionAppear.stream().anyMatch(ex -> ex) && currentIndex < totalRepeats;
+            if (state.policy.isStability()) {
+                // all runs are started right away, Jupiter parallel execution runs them concurrently
+                return currentIndex < state.totalRepeats;
+            }
+            if (state.policy.isLatency()) {
+                // runs are timed one after another, so they do not slow each other down
+                state.attemptTracker.awaitFinished(currentIndex);
+                return !state.ledger.hasFailures() && currentIndex < state.totalRepeats;
+            }
+            if (state.policy.reuseInstance()) {
+                // all attempts run in place within the first invocation
+                return false;
+            }
+            if (state.policy.isHedged()) {
+                return hasNextHedged();
+            }
+            // the previous attempt may still run on another thread under parallel execution
+            state.attemptTracker.awaitFinished(currentIndex);
+            boolean repeat = state.ledger.hasFailures() && !state.ledger.retriesDenied() && currentIndex < state.totalRepeats;
+            if (repeat && backedOffBefore <= currentIndex && state.ledger.successes() < state.minSuccess) {
+                backOff();
+            }
+            return repeat;
+        }
+        
+        /**
+         * Hedged attempts: the first {@link com.github.jaqat.junit5.extension.retriable.common.Hedge#attempts()}
+         * attempts are started at once, then another attempt is started whenever the latest one runs longer than
+         * {@link com.github.jaqat.junit5.extension.retriable.common.Hedge#after()}, or as a plain retry
+         * once all started attempts failed.
+         */
+        private boolean hasNextHedged() {
+            if (hedgedAttemptPending) {
+                return true;
+            }
+            AttemptLedger ledger = state.ledger;
+            while (ledger.successes() < state.minSuccess && !ledger.retriesDenied() && currentIndex < state.totalRepeats
+                    && state.totalRepeats - ledger.failures() >= state.minSuccess) {
+                if (currentIndex < state.policy.hedgeAttempts()) {
+                    return hedgedAttemptPending = true;
+                }
+                int finished = state.attemptTracker.finishedAttempts();
+                if (finished >= currentIndex) {
+                    if (!ledger.hasFailures()) {
+                        return false;
+                    }
+                    if (backedOffBefore <= currentIndex) {
+                        backOff();
+                    }
+                    return hedgedAttemptPending = true;
+                }
+                long after = state.policy.hedgeAfter();
+                if (after < 0) {
+                    state.attemptTracker.awaitFinished(finished + 1);
+                } else if (!state.attemptTracker.awaitFinished(finished + 1,
+                        lastAttemptStartedAt + TimeUnit.MILLISECONDS.toNanos(after))) {
+                    return hedgedAttemptPending = true;
+                }
+            }
+            return false;
+        }
+        
+        private void backOff() {
+            backedOffBefore = currentIndex + 1;
+            BackoffPolicy backoff = state.policy.backoff();
+            if (backoff.isEnabled()) {
+                lastBackoffDelay = backoff.delayMillis(currentIndex, lastBackoffDelay);
+                backoff.await(lastBackoffDelay);
+            }
         }
         
         @Override
         public TestTemplateInvocationContext next() {
-            int successfulTestRepetitionsCount = toIntExact(historyExceptionAppear.stream().filter(b -> !b).count());
+            if (warmupIndex < state.policy.warmup()) {
+                warmupIndex++;
+                return new WarmupInvocationContext(warmupIndex, state.policy.warmup(), state.formatter,
+                        state.warmupTracker);
+            }
             if (hasNext()) {
                 currentIndex++;
-                return new RetriableInvocationContext(currentIndex, totalRepeats,
-                        successfulTestRepetitionsCount, minSuccess, repeatableExceptionAppeared, formatter);
+                hedgedAttemptPending = false;
+                lastAttemptStartedAt = System.nanoTime();
+                return new RetriableInvocationContext(currentIndex, state.totalRepeats,
+                        state.ledger.successes(), state.minSuccess, state.repeatableExceptionAppeared,
+                        state.formatter, state.attemptTracker, state.policy.isHedged() ? state.ledger : null,
+                        state.policy.isStability() || state.policy.isLatency());
             }
             throw new NoSuchElementException();
         }
@@ -0,0 +1,100 @@
+package com.github.jaqat.junit5.extension.retriable.single;
+
+import com.github.jaqat.junit5.extension.retriable.common.AttemptLedger;
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTracker;
+import com.github.jaqat.junit5.extension.retriable.common.FlakeHistory;
+import com.github.jaqat.junit5.extension.retriable.common.LatencyHistogram;
+import com.github.jaqat.junit5.extension.retriable.common.RetryBudget;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListeners;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retry state of one {@link RetriableTest} method.
+ * It lives in the store of the test template context, so concurrently running methods never share it.
+ */
+class RetriableTestState {
+    
+    final RetryPolicy policy;
+    final int totalRepeats;
+    final int minSuccess;
+    final RetriableDisplayNameFormatter formatter;
+    final AttemptLedger ledger;
+    final AttemptTracker attemptTracker = new AttemptTracker();
+    final AttemptTracker warmupTracker = new AttemptTracker();
+    final FlakeHistory history;
+    final long historyKey;
+    final RetryListeners listeners;
+    final AtomicInteger startedAttempts = new AtomicInteger();
+    final AtomicBoolean finalReported = new AtomicBoolean();
+    /**
+     * The {@link RetryBudget} was credited for the first attempt; concurrent attempts may all start
+     * before any of them is recorded
+     */
+    final AtomicBoolean firstAttemptCredited = new AtomicBoolean();
+    /**
+     * Runs of a stability test that are recorded in the ledger
+     */
+    final AtomicInteger finishedRuns = new AtomicInteger();
+    /**
+     * Durations of the passed runs of a latency test, null for other tests
+     */
+    final LatencyHistogram latency;
+    volatile boolean repeatableExceptionAppeared = false;
+    /**
+     * Threads running hedged attempts; guarded by itself
+     */
+    private final Set<Thread> runningAttempts = new HashSet<>();
+    private boolean cancelled;
+    
+    RetriableTestState(RetryPolicy policy, RetriableDisplayNameFormatter formatter, FlakeHistory history,
+                       long historyKey, RetryListeners listeners) {
+        this.policy = policy;
+        this.totalRepeats = policy.repeats();
+        this.minSuccess = policy.minSuccess();
+        this.formatter = formatter;
+        this.ledger = new AttemptLedger(totalRepeats, false);
+        this.history = history;
+        this.historyKey = historyKey;
+        this.listeners = listeners;
+        this.latency = policy.isLatency() ? new LatencyHistogram() : null;
+    }
+    
+    void attemptStarted() {
+        synchronized (runningAttempts) {
+            runningAttempts.add(Thread.currentThread());
+        }
+    }
+    
+    /**
+     * Forget the current thread. An interrupt of a cancelled attempt must not leak into the next test
+     * executed by the same worker, so it is cleared here; no interrupt can arrive after the thread is removed.
+     */
+    void attemptEnded() {
+        synchronized (runningAttempts) {
+            runningAttempts.remove(Thread.currentThread());
+            if (cancelled) {
+                Thread.interrupted();
+            }
+        }
+    }
+    
+    /**
+     * Interrupt the attempts that are still running once the test has passed
+     */
+    void cancelRunningAttempts() {
+        synchronized (runningAttempts) {
+            cancelled = true;
+            Thread current = Thread.currentThread();
+            for (Thread attempt : runningAttempts) {
+                if (attempt != current) {
+                    attempt.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.jaqat.junit5.extension.retriable.single;
+
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTracker;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestTemplateInvocationContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Warm-up attempt of a {@link RetriableTest}, see {@link RetriableTest#warmup()}.
+ * The attempt is marked in its own store, so the extension callbacks can leave it out of the retry state.
+ */
+class WarmupInvocationContext implements TestTemplateInvocationContext {
+    
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(WarmupInvocationContext.class);
+    private static final String WARMUP_KEY = "warmup";
+    
+    private final int currentWarmup;
+    private final int totalWarmups;
+    private final RetriableDisplayNameFormatter formatter;
+    private final AttemptTracker warmupTracker;
+    
+    WarmupInvocationContext(int currentWarmup, int totalWarmups, RetriableDisplayNameFormatter formatter,
+                            AttemptTracker warmupTracker) {
+        this.currentWarmup = currentWarmup;
+        this.totalWarmups = totalWarmups;
+        this.formatter = formatter;
+        this.warmupTracker = warmupTracker;
+    }
+    
+    /**
+     * @param context - invocation context
+     * @return true if the invocation is a warm-up attempt
+     */
+    static boolean isWarmup(ExtensionContext context) {
+        return context.getStore(NAMESPACE).get(WARMUP_KEY) != null;
+    }
+    
+    @Override
+    public String getDisplayName(int invocationIndex) {
+        return formatter.formatWarmup(currentWarmup, totalWarmups);
+    }
+    
+    @Override
+    public List<Extension> getAdditionalExtensions() {
+        return Arrays.asList(warmupTracker.completionCondition(),
+                (BeforeEachCallback) WarmupInvocationContext::markWarmup);
+    }
+    
+    /**
+     * Marks the attempt before any before-test-execution callback of {@link RetriableTestExtension} looks for the mark;
+     * unlike a condition, a callback is not switched off by deactivating conditions.
+     */
+    private static void markWarmup(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(WARMUP_KEY, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,89 @@
+import com.github.jaqat.junit5.extension.retriable.common.AttemptLedger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The packed counters of {@link AttemptLedger}: successes in the high 32 bits, failures in the low 32 bits.
+ */
+public class AttemptLedgerTest {
+    
+    @Test
+    void countersAndHistory() {
+        AttemptLedger ledger = new AttemptLedger(4, true);
+        ledger.recordFailure();
+        ledger.recordSuccess();
+        ledger.recordFailure();
+        
+        assertEquals(1, ledger.successes());
+        assertEquals(2, ledger.failures());
+        assertEquals(3, ledger.attempts());
+        assertTrue(ledger.hasFailures());
+        assertTrue(ledger.failed(0));
+        assertFalse(ledger.failed(1));
+        assertTrue(ledger.failed(2));
+        assertFalse(ledger.failed(3));
+        assertFalse(ledger.failed(64), "beyond the history");
+    }
+    
+    @Test
+    void historyIsOptional() {
+        AttemptLedger ledger = new AttemptLedger(4, false);
+        ledger.recordFailure();
+        
+        assertEquals(1, ledger.failures());
+        assertFalse(ledger.failed(0));
+    }
+    
+    @Test
+    void concurrentRecordsAreNotLost() throws Exception {
+        int threads = 8;
+        int perThread = 10_000;
+        AttemptLedger ledger = new AttemptLedger(threads * perThread, true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                boolean failing = thread % 2 == 0;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        if (failing) {
+                            ledger.recordFailure();
+                        } else {
+                            ledger.recordSuccess();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(threads / 2 * perThread, ledger.successes());
+        assertEquals(threads / 2 * perThread, ledger.failures());
+        assertEquals(threads * perThread, ledger.attempts());
+        int failedInHistory = 0;
+        for (int attempt = 0; attempt < threads * perThread; attempt++) {
+            if (ledger.failed(attempt)) {
+                failedInHistory++;
+            }
+        }
+        assertEquals(ledger.failures(), failedInHistory, "every failure owns its own history bit");
+    }
+}
@@ -0,0 +1,128 @@
+import com.github.jaqat.junit5.extension.retriable.common.AttemptTimeoutException;
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Hung attempts are interrupted by the watchdog and retried.
+ */
+public class AttemptTimeoutTest {
+    
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    
+    @Test
+    void hungAttemptIsRetried() {
+        TestExecutionSummary summary = execute("hungOnce");
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void hungParameterizedAttemptIsRetried() {
+        TestExecutionSummary summary = execute("hungOnceParameterized", String.class.getName());
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void lastHungAttemptFailsWithThreadDump() {
+        TestExecutionSummary summary = execute("alwaysHung");
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+        Throwable failure = summary.getFailures().get(0).getException();
+        assertTrue(failure instanceof AttemptTimeoutException);
+        assertTrue(((AttemptTimeoutException) failure).threadDump().contains("alwaysHung"));
+        assertTrue(failure.getSuppressed()[0] instanceof InterruptedException);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+    
+    @Test
+    void attemptThatSwallowsTheInterruptIsRetried() {
+        TestExecutionSummary summary = execute("swallowsInterruptOnce");
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void lastParameterizedAttemptThatSwallowsTheInterruptFails() {
+        TestExecutionSummary summary = execute("alwaysSwallowsInterrupt", String.class.getName());
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+        assertTrue(summary.getFailures().get(0).getException() instanceof AttemptTimeoutException);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+    
+    private static TestExecutionSummary execute(String method, String... parameterTypes) {
+        ATTEMPTS.set(0);
+        return TestLauncher.execute(request()
+                .selectors(selectMethod(Hanging.class.getName(), method, String.join(",", parameterTypes)))
+                .build());
+    }
+    
+    static class Hanging {
+        
+        @RetriableTest(repeats = 3, attemptTimeout = 100)
+        void hungOnce() throws InterruptedException {
+            if (ATTEMPTS.incrementAndGet() == 1) {
+                TimeUnit.MINUTES.sleep(1);
+            }
+        }
+        
+        @RetriableParameterizedTest(repeats = 3, attemptTimeout = 100)
+        @ValueSource(strings = "a")
+        void hungOnceParameterized(String value) throws InterruptedException {
+            if (ATTEMPTS.incrementAndGet() == 1) {
+                TimeUnit.MINUTES.sleep(1);
+            }
+        }
+        
+        @RetriableTest(repeats = 2, attemptTimeout = 100)
+        void alwaysHung() throws InterruptedException {
+            ATTEMPTS.incrementAndGet();
+            TimeUnit.MINUTES.sleep(1);
+        }
+        
+        @RetriableTest(repeats = 3, attemptTimeout = 100)
+        void swallowsInterruptOnce() {
+            if (ATTEMPTS.incrementAndGet() == 1) {
+                sleepThroughInterrupt();
+            }
+        }
+        
+        @RetriableParameterizedTest(repeats = 2, attemptTimeout = 100)
+        @ValueSource(strings = "a")
+        void alwaysSwallowsInterrupt(String value) {
+            ATTEMPTS.incrementAndGet();
+            sleepThroughInterrupt();
+        }
+        
+        private static void sleepThroughInterrupt() {
+            try {
+                TimeUnit.MINUTES.sleep(1);
+            } catch (InterruptedException e) {
+                // returns as if nothing happened
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import com.github.jaqat.junit5.extension.retriable.common.FlakeHistory;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * In adaptive mode the history decides the repeats: a test that has never failed is not retried,
+ * a flaky test gets the repeats its failure rate needs.
+ */
+public class FlakeHistoryTest {
+    
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    private static volatile boolean failing;
+    
+    @Test
+    void stableTestIsNotRetriedInAdaptiveMode() throws Exception {
+        Path file = Files.createTempFile("flake-history", ".bin");
+        Files.delete(file);
+        try {
+            failing = false;
+            for (int run = 0; run < 10; run++) {
+                execute(file, "test");
+            }
+            assertEquals(8 + 10 * 24, Files.size(file));
+            
+            failing = true;
+            ATTEMPTS.set(0);
+            execute(file, "test");
+            assertEquals(1, ATTEMPTS.get());
+        } finally {
+            delete(file);
+        }
+    }
+    
+    @Test
+    void flakyTestGetsTheRepeatsItsFailureRateNeeds() throws Exception {
+        Path file = Files.createTempFile("flake-history", ".bin");
+        Files.delete(file);
+        try {
+            // every run fails once and passes on the retry, 10 attempts with a failure rate of 0.5
+            failing = false;
+            for (int run = 0; run < 5; run++) {
+                ATTEMPTS.set(0);
+                execute(file, "flaky");
+                assertEquals(2, ATTEMPTS.get());
+            }
+            
+            // 0.5^10 is below the tolerated flake probability of 1e-3, so 10 of the 20 repeats are enough
+            failing = true;
+            ATTEMPTS.set(0);
+            execute(file, "flaky");
+            assertEquals(10, ATTEMPTS.get());
+        } finally {
+            delete(file);
+        }
+    }
+    
+    private static void execute(Path file, String method) {
+        TestLauncher.execute(request()
+                .selectors(selectMethod(SometimesFailing.class, method))
+                .configurationParameter(FlakeHistory.FILE_PROPERTY_NAME, file.toString())
+                .configurationParameter(FlakeHistory.ADAPTIVE_PROPERTY_NAME, "true")
+                .build());
+    }
+    
+    private static void delete(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".lock"));
+    }
+    
+    static class SometimesFailing {
+        
+        @RetriableTest(repeats = 5)
+        void test() {
+            ATTEMPTS.incrementAndGet();
+            if (failing) {
+                fail("failing");
+            }
+        }
+        
+        @RetriableTest(repeats = 20)
+        void flaky() {
+            if (ATTEMPTS.incrementAndGet() == 1 || failing) {
+                fail("flaky");
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+import com.github.jaqat.junit5.extension.retriable.common.Quarantine;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * The main lane skips quarantined tests and does not retry the others, the quarantine lane runs the rest.
+ */
+public class QuarantineTest {
+    
+    private static final Map<String, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    
+    @Test
+    void mainLaneRunsStableTestsWithoutRetries() {
+        TestExecutionSummary summary = execute("main");
+        
+        assertEquals(1, ATTEMPTS.get("stable").get());
+        assertNull(ATTEMPTS.get("flaky"));
+        assertEquals(1, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void quarantineLaneRunsQuarantinedTestsWithRetries() {
+        TestExecutionSummary summary = execute("quarantine");
+        
+        assertNull(ATTEMPTS.get("stable"));
+        assertEquals(2, ATTEMPTS.get("flaky").get());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void repeatsThatAreNotANumberAreAConfigurationError() {
+        ATTEMPTS.clear();
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectClass(Lanes.class))
+                .configurationParameter(Quarantine.LANE_PROPERTY_NAME, "quarantine")
+                .configurationParameter(Quarantine.REPEATS_PROPERTY_NAME, "many")
+                .build());
+        
+        assertTrue(ATTEMPTS.isEmpty());
+        String message = summary.getFailures().get(0).getException().getMessage();
+        assertTrue(message.endsWith("Configuration error: " + Quarantine.REPEATS_PROPERTY_NAME
+                + " must be a number but was [many]"), message);
+    }
+    
+    private static TestExecutionSummary execute(String lane) {
+        ATTEMPTS.clear();
+        return TestLauncher.execute(request()
+                .selectors(selectClass(Lanes.class))
+                .configurationParameter(Quarantine.LANE_PROPERTY_NAME, lane)
+                .build());
+    }
+    
+    private static int attempt(String test) {
+        return ATTEMPTS.computeIfAbsent(test, key -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    static class Lanes {
+        
+        @RetriableTest(repeats = 3)
+        void stable() {
+            if (attempt("stable") == 1) {
+                throw new IllegalStateException("would be retried outside of the main lane");
+            }
+        }
+        
+        @RetriableTest(repeats = 3, quarantined = true)
+        void flaky() {
+            if (attempt("flaky") == 1) {
+                throw new IllegalStateException("flaky");
+            }
+        }
+    }
+}
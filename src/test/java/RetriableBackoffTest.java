@@ -0,0 +1,73 @@
+import com.github.jaqat.junit5.extension.retriable.common.Backoff;
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Both extensions wait for the {@link Backoff} delay between a failed attempt and its retry.
+ */
+public class RetriableBackoffTest {
+    
+    private static final long DELAY = 100;
+    
+    private static final List<Long> ATTEMPTS = new CopyOnWriteArrayList<>();
+    
+    @Test
+    void retriableTestWaitsBetweenAttempts() {
+        assertWaitsBetweenAttempts(execute("failsTwice"));
+    }
+    
+    @Test
+    void retriableParameterizedTestWaitsBetweenAttempts() {
+        assertWaitsBetweenAttempts(execute("failsTwiceParameterized(java.lang.String)"));
+    }
+    
+    private static TestExecutionSummary execute(String method) {
+        ATTEMPTS.clear();
+        return TestLauncher.execute(request()
+                .selectors(selectMethod(Delayed.class.getName() + "#" + method))
+                .build());
+    }
+    
+    private static void assertWaitsBetweenAttempts(TestExecutionSummary summary) {
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals(3, ATTEMPTS.size());
+        for (int attempt = 1; attempt < ATTEMPTS.size(); attempt++) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(ATTEMPTS.get(attempt) - ATTEMPTS.get(attempt - 1));
+            assertTrue(waited >= DELAY, "attempt " + attempt + " waited only " + waited + " ms");
+        }
+    }
+    
+    static class Delayed {
+        
+        private static void attempt() {
+            ATTEMPTS.add(System.nanoTime());
+            if (ATTEMPTS.size() < 3) {
+                fail("fails twice");
+            }
+        }
+        
+        @RetriableTest(repeats = 3, backoff = @Backoff(strategy = Backoff.Strategy.FIXED, delay = DELAY))
+        void failsTwice() {
+            attempt();
+        }
+        
+        @RetriableParameterizedTest(repeats = 3, backoff = @Backoff(strategy = Backoff.Strategy.FIXED, delay = DELAY))
+        @ValueSource(strings = "value")
+        void failsTwiceParameterized(String value) {
+            attempt();
+        }
+    }
+}
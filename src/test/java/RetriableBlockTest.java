@@ -0,0 +1,98 @@
+import com.github.jaqat.junit5.extension.retriable.Retriable;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Blocks inside of a test are retried without re-running the test.
+ */
+public class RetriableBlockTest {
+    
+    private final AtomicInteger attempts = new AtomicInteger();
+    private final List<Map<String, String>> entries = new ArrayList<>();
+    
+    @Test
+    void flakyBlockIsRetried() {
+        String result = Retriable.run(RetryPolicy.builder(3).build(), entries::add, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IOException("flaky");
+            }
+            return "passed";
+        });
+        
+        assertEquals("passed", result);
+        assertEquals(3, attempts.get());
+        assertEquals("3", entries.get(0).get("retriable.block.attempts"));
+        assertEquals("2", entries.get(0).get("retriable.block.failures"));
+        assertEquals("pass", entries.get(0).get("retriable.block.verdict"));
+    }
+    
+    @Test
+    void otherExceptionsFailRightAway() {
+        RetryPolicy policy = RetryPolicy.builder(3).exceptions(IOException.class).build();
+        IllegalStateException failure = new IllegalStateException("broken");
+        
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> Retriable.run(policy, () -> {
+            attempts.incrementAndGet();
+            throw failure;
+        }));
+        
+        assertSame(failure, thrown);
+        assertEquals(1, attempts.get());
+    }
+    
+    @Test
+    void blacklistedExceptionsAreNeverRetried() {
+        OutOfMemoryError error = new OutOfMemoryError("simulated");
+        
+        OutOfMemoryError thrown = assertThrows(OutOfMemoryError.class, () -> Retriable.run(RetryPolicy.builder(3).build(),
+                entries::add, () -> {
+                    attempts.incrementAndGet();
+                    throw error;
+                }));
+        
+        assertSame(error, thrown);
+        assertEquals(1, attempts.get());
+        assertTrue(entries.isEmpty(), "no verdict is reported");
+    }
+    
+    @Test
+    void minSuccessIsRequired() {
+        RetryPolicy policy = RetryPolicy.builder(4).minSuccess(2).build();
+        
+        Retriable.run(policy, () -> {
+            if (attempts.incrementAndGet() == 2) {
+                throw new IOException("flaky");
+            }
+        });
+        
+        assertEquals(3, attempts.get());
+    }
+    
+    @Test
+    void lastFailureKeepsEarlierFailures() {
+        RetryPolicy policy = RetryPolicy.builder(4).minSuccess(2).build();
+        
+        UncheckedIOException thrown = assertThrows(UncheckedIOException.class,
+                () -> Retriable.run(policy, entries::add, () -> {
+                    throw new UncheckedIOException(new IOException("attempt " + attempts.incrementAndGet()));
+                }));
+        
+        // two passes are out of reach after the third failure
+        assertEquals(3, attempts.get());
+        assertEquals("attempt 3", thrown.getCause().getMessage());
+        assertEquals(2, thrown.getSuppressed().length);
+        assertEquals("final_fail", entries.get(0).get("retriable.block.verdict"));
+    }
+}
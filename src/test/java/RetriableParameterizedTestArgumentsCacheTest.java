@@ -0,0 +1,251 @@
+import com.github.jaqat.junit5.extension.retriable.parametrized.ArgumentsCache;
+import com.github.jaqat.junit5.extension.retriable.parametrized.CachedArguments;
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * {@link CachedArguments} stores the argument sets on disk until the inputs of the source change.
+ */
+public class RetriableParameterizedTestArgumentsCacheTest {
+    
+    private static final String INPUT = "target/arguments-cache-test/input.txt";
+    private static final AtomicInteger GENERATIONS = new AtomicInteger();
+    private static final List<String> VALUES = new CopyOnWriteArrayList<>();
+    
+    private Path cache;
+    
+    @BeforeEach
+    void createCache() throws IOException {
+        cache = Files.createTempDirectory("retriable-arguments-cache");
+    }
+    
+    @AfterEach
+    void deleteCache() throws IOException {
+        deleteRecursively(cache);
+    }
+    
+    @AfterAll
+    static void deleteInput() throws IOException {
+        deleteRecursively(Paths.get(INPUT).getParent());
+    }
+    
+    @Test
+    void argumentSetsAreGeneratedOnlyWhenTheInputChanges() throws IOException {
+        writeInput("a", "b", "c");
+        
+        assertEquals(3, execute(cache, "fromInput(java.lang.String)").getTestsSucceededCount());
+        assertEquals(1, GENERATIONS.get());
+        assertEquals(Arrays.asList("a", "b", "c"), VALUES);
+        
+        assertEquals(3, execute(cache, "fromInput(java.lang.String)").getTestsSucceededCount());
+        assertEquals(0, GENERATIONS.get());
+        assertEquals(Arrays.asList("a", "b", "c"), VALUES);
+        
+        writeInput("d", "e");
+        assertEquals(2, execute(cache, "fromInput(java.lang.String)").getTestsSucceededCount());
+        assertEquals(1, GENERATIONS.get());
+        assertEquals(Arrays.asList("d", "e"), VALUES);
+    }
+    
+    @Test
+    void argumentsThatCannotBeSerializedAreNotCached() {
+        assertEquals(2, execute(cache, "notSerializable(java.lang.Object)").getTestsSucceededCount());
+        assertEquals(2, execute(cache, "notSerializable(java.lang.Object)").getTestsSucceededCount());
+        assertEquals(1, GENERATIONS.get());
+    }
+    
+    @Test
+    void subclassesInheritingTheMethodHaveCachesOfTheirOwn() {
+        assertEquals(1, execute(cache, FirstSubclass.class, "inherited(java.lang.String)").getTestsSucceededCount());
+        assertEquals(Arrays.asList("first"), VALUES);
+        
+        assertEquals(1, execute(cache, SecondSubclass.class, "inherited(java.lang.String)").getTestsSucceededCount());
+        assertEquals(1, GENERATIONS.get());
+        assertEquals(Arrays.asList("second"), VALUES);
+    }
+    
+    @Test
+    void cacheOfARecordClassThatChangedIsRebuilt() throws IOException {
+        assertEquals(2, execute(cache, "fromSamples(" + Sample.class.getName() + ")").getTestsSucceededCount());
+        // a class of the same name length keeps the stream well-formed, but can no longer be resolved
+        replaceInCacheFiles(Sample.class.getName(), Sample.class.getName().replace("Sample", "Simple"));
+        
+        assertEquals(2, execute(cache, "fromSamples(" + Sample.class.getName() + ")").getTestsSucceededCount());
+        assertEquals(1, GENERATIONS.get());
+        assertEquals(Arrays.asList("a", "b"), VALUES);
+        
+        assertEquals(2, execute(cache, "fromSamples(" + Sample.class.getName() + ")").getTestsSucceededCount());
+        assertEquals(0, GENERATIONS.get());
+    }
+    
+    @Test
+    void brokenCacheFileIsRebuilt() throws IOException {
+        writeInput("a", "b");
+        assertEquals(2, execute(cache, "fromInput(java.lang.String)").getTestsSucceededCount());
+        try (Stream<Path> files = Files.list(cache)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.write(file, "broken".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        
+        assertEquals(2, execute(cache, "fromInput(java.lang.String)").getTestsSucceededCount());
+        assertEquals(1, GENERATIONS.get());
+        assertEquals(Arrays.asList("a", "b"), VALUES);
+    }
+    
+    private void replaceInCacheFiles(String target, String replacement) throws IOException {
+        byte[] from = target.getBytes(StandardCharsets.UTF_8);
+        byte[] to = replacement.getBytes(StandardCharsets.UTF_8);
+        try (Stream<Path> files = Files.list(cache)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                try (InputStream in = new InflaterInputStream(Files.newInputStream(file))) {
+                    byte[] buffer = new byte[8192];
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        content.write(buffer, 0, read);
+                    }
+                }
+                byte[] bytes = content.toByteArray();
+                for (int i = 0; i <= bytes.length - from.length; i++) {
+                    if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + from.length), from)) {
+                        System.arraycopy(to, 0, bytes, i, to.length);
+                    }
+                }
+                try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(file))) {
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+    
+    private static void writeInput(String... lines) throws IOException {
+        Path input = Paths.get(INPUT);
+        Files.createDirectories(input.getParent());
+        Files.write(input, Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+    
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+    
+    private static TestExecutionSummary execute(Path cache, String method) {
+        return execute(cache, Sources.class, method);
+    }
+    
+    private static TestExecutionSummary execute(Path cache, Class<?> testClass, String method) {
+        GENERATIONS.set(0);
+        VALUES.clear();
+        return TestLauncher.execute(request()
+                .selectors(selectMethod(testClass.getName() + "#" + method))
+                .configurationParameter(ArgumentsCache.DIRECTORY_PROPERTY_NAME, cache.toString())
+                .build());
+    }
+    
+    static class Sources {
+        
+        static Stream<String> lines() throws IOException {
+            GENERATIONS.incrementAndGet();
+            return Files.readAllLines(Paths.get(INPUT), StandardCharsets.UTF_8).stream();
+        }
+        
+        static Stream<Object> objects() {
+            GENERATIONS.incrementAndGet();
+            return Stream.of(new Object(), new Object());
+        }
+        
+        @RetriableParameterizedTest(repeats = 1)
+        @MethodSource("lines")
+        @CachedArguments(inputs = INPUT)
+        void fromInput(String value) {
+            VALUES.add(value);
+        }
+        
+        static Stream<Sample> samples() {
+            GENERATIONS.incrementAndGet();
+            return Stream.of(new Sample("a"), new Sample("b"));
+        }
+        
+        @RetriableParameterizedTest(repeats = 1)
+        @MethodSource("objects")
+        @CachedArguments
+        void notSerializable(Object value) {
+        }
+        
+        @RetriableParameterizedTest(repeats = 1)
+        @MethodSource("samples")
+        @CachedArguments
+        void fromSamples(Sample sample) {
+            VALUES.add(sample.value);
+        }
+    }
+    
+    static class Sample implements Serializable {
+        
+        private final String value;
+        
+        Sample(String value) {
+            this.value = value;
+        }
+    }
+    
+    abstract static class Inherited {
+        
+        @RetriableParameterizedTest(repeats = 1)
+        @MethodSource("values")
+        @CachedArguments
+        void inherited(String value) {
+            VALUES.add(value);
+        }
+    }
+    
+    static class FirstSubclass extends Inherited {
+        
+        static Stream<String> values() {
+            GENERATIONS.incrementAndGet();
+            return Stream.of("first");
+        }
+    }
+    
+    static class SecondSubclass extends Inherited {
+        
+        static Stream<String> values() {
+            GENERATIONS.incrementAndGet();
+            return Stream.of("second");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * Runs the argument sets of a {@link RetriableParameterizedTest} concurrently and checks
+ * that every case keeps its own retries.
+ */
+public class RetriableParameterizedTestConcurrencyTest {
+    
+    private static final int CASES = 40;
+    
+    private static final Map<Integer, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+    private static final Map<Integer, AtomicInteger> ORDERED_ATTEMPTS = new ConcurrentHashMap<>();
+    private static CountDownLatch firstAttemptsFailed;
+    
+    @Test
+    void casesRunConcurrentlyWithIsolatedRetries() {
+        ATTEMPTS.clear();
+        MAX_RUNNING.set(0);
+        TestExecutionSummary summary = TestLauncher.execute(TestLauncher.parallelRequest(8)
+                .selectors(selectClass(ConcurrentCases.class))
+                .build());
+        
+        for (int number = 0; number < CASES; number++) {
+            // every third case fails twice, every other even case fails once, the rest passes at once
+            int expected = number % 3 == 0 ? 3 : number % 2 == 0 ? 2 : 1;
+            assertEquals(expected, ATTEMPTS.get(number).get(), "attempts of case " + number);
+        }
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals(CASES, summary.getTestsSucceededCount());
+        assertTrue(MAX_RUNNING.get() > 1, "cases should overlap, max running " + MAX_RUNNING.get());
+        assertTrue(MAX_RUNNING.get() <= 4, "concurrency limit exceeded, max running " + MAX_RUNNING.get());
+    }
+    
+    @Test
+    void retriesAreHandedOutInSourceOrder() {
+        ORDERED_ATTEMPTS.clear();
+        firstAttemptsFailed = new CountDownLatch(3);
+        List<String> registered = new CopyOnWriteArrayList<>();
+        TestExecutionSummary summary = TestLauncher.execute(TestLauncher.parallelRequest(8)
+                .selectors(selectClass(OrderedCases.class))
+                .build(), new TestExecutionListener() {
+                    @Override
+                    public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+                        registered.add(testIdentifier.getDisplayName().trim());
+                    }
+                });
+        
+        assertEquals(0, summary.getTestsFailedCount());
+        // the first attempts fail in reverse order and are all finished once the last case is handed out
+        assertEquals(Arrays.asList("case 0", "case 1", "case 2", "case 3",
+                "case 0 [Retry 2]", "case 1 [Retry 2]", "case 2 [Retry 2]"), registered);
+    }
+    
+    /**
+     * Holds the last argument set back until the first attempts of the other cases failed
+     */
+    static class OrderedArguments implements ArgumentsProvider {
+        
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return IntStream.range(0, 4).mapToObj(number -> {
+                if (number == 3) {
+                    awaitFirstAttempts();
+                }
+                return Arguments.of(number);
+            });
+        }
+        
+        private static void awaitFirstAttempts() {
+            try {
+                assertTrue(firstAttemptsFailed.await(5, TimeUnit.SECONDS));
+                // the failed attempts still have to reach the iterator
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+    
+    static class OrderedCases {
+        
+        @RetriableParameterizedTest(repeats = 2, concurrency = 4, name = "case {0}")
+        @ArgumentsSource(OrderedArguments.class)
+        void failsOnce(int number) throws InterruptedException {
+            if (ORDERED_ATTEMPTS.computeIfAbsent(number, key -> new AtomicInteger()).incrementAndGet() == 1
+                    && number < 3) {
+                Thread.sleep(50 * (2 - number));
+                firstAttemptsFailed.countDown();
+                throw new IllegalStateException("first attempt of case " + number);
+            }
+        }
+    }
+    
+    static class ConcurrentCases {
+        
+        static IntStream numbers() {
+            return IntStream.range(0, CASES);
+        }
+        
+        @RetriableParameterizedTest(repeats = 3, concurrency = 4)
+        @MethodSource("numbers")
+        void retriedCase(int number) throws InterruptedException {
+            int running = RUNNING.incrementAndGet();
+            MAX_RUNNING.accumulateAndGet(running, Math::max);
+            try {
+                Thread.sleep(20);
+                int attempt = ATTEMPTS.computeIfAbsent(number, key -> new AtomicInteger()).incrementAndGet();
+                int failures = number % 3 == 0 ? 2 : number % 2 == 0 ? 1 : 0;
+                assertTrue(attempt > failures);
+            } finally {
+                RUNNING.decrementAndGet();
+            }
+        }
+    }
+}
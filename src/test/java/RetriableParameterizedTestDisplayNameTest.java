@@ -0,0 +1,110 @@
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Display names of parameterized cases are rendered once per case with bounded arguments.
+ */
+public class RetriableParameterizedTestDisplayNameTest {
+    
+    private static final String MAX_ARGUMENT_LENGTH_PROPERTY_NAME = "junit.retriable.displayname.argument.maxlength";
+    
+    @Test
+    void retriesReuseTheNameOfTheCase() {
+        List<String> names = execute(Named.class);
+        
+        assertEquals(Arrays.asList(
+                "it's named 1: a, [1, 2]",
+                "it's named 1: a, [1, 2] [Retry 2] ",
+                "it's named 2: b, [3]",
+                "it's named 2: b, [3] [Retry 2] "), names);
+    }
+    
+    @Test
+    void longArgumentsAreTruncated() {
+        List<String> names = execute(Truncated.class);
+        
+        assertEquals(Arrays.asList(
+                "[1] abcdefghi\u2026",
+                "[2] [0, 1, 2,\u2026",
+                "[3] [[1, 2], \u2026"), names);
+    }
+    
+    @Test
+    void maxArgumentLengthThatIsNotANumberIsAConfigurationError() {
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectClass(Truncated.class))
+                .configurationParameter(MAX_ARGUMENT_LENGTH_PROPERTY_NAME, "ten")
+                .build());
+        
+        assertEquals(1, summary.getTotalFailureCount());
+        assertEquals("Configuration error: " + MAX_ARGUMENT_LENGTH_PROPERTY_NAME + " must be a number but was [ten]",
+                summary.getFailures().get(0).getException().getMessage());
+    }
+    
+    private static List<String> execute(Class<?> testClass) {
+        List<String> names = Collections.synchronizedList(new ArrayList<>());
+        TestLauncher.execute(request()
+                .selectors(selectClass(testClass))
+                .configurationParameter(MAX_ARGUMENT_LENGTH_PROPERTY_NAME, "10")
+                .build(), new TestExecutionListener() {
+            @Override
+            public void dynamicTestRegistered(TestIdentifier testIdentifier) {
+                names.add(testIdentifier.getDisplayName());
+            }
+        });
+        return names;
+    }
+    
+    static class Named {
+        
+        private static final List<String> FAILED = Collections.synchronizedList(new ArrayList<>());
+        
+        static Stream<Arguments> cases() {
+            FAILED.clear();
+            return Stream.of(Arguments.of("a", new int[]{1, 2}), Arguments.of("b", Collections.singletonList(3)));
+        }
+        
+        @DisplayName("it's named")
+        @RetriableParameterizedTest(repeats = 2, name = "{displayName} {index}: {arguments}")
+        @MethodSource("cases")
+        void named(String value, Object numbers) {
+            if (!FAILED.contains(value)) {
+                FAILED.add(value);
+                fail("first attempt of " + value);
+            }
+        }
+    }
+    
+    static class Truncated {
+        
+        static Stream<Object> cases() {
+            return Stream.of(
+                    "abcdefghijklmnopqrstuvwxyz",
+                    IntStream.range(0, 1_000_000).toArray(),
+                    Arrays.asList(Arrays.asList(1, 2), Collections.nCopies(1_000_000, 3)));
+        }
+        
+        @RetriableParameterizedTest(repeats = 1)
+        @MethodSource("cases")
+        void truncated(Object value) {
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Argument sets of a {@link RetriableParameterizedTest} are pulled one by one and dropped once their case is finished.
+ */
+public class RetriableParameterizedTestLazyArgumentsTest {
+    
+    private static final int CASES = 5;
+    
+    private static final AtomicInteger PULLED = new AtomicInteger();
+    private static final Map<Integer, Integer> PULLED_WHILE_RUNNING = new ConcurrentHashMap<>();
+    private static final List<WeakReference<Payload>> PAYLOADS = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger RELEASED = new AtomicInteger(-1);
+    
+    @Test
+    void argumentsArePulledLazilyAndReleased() {
+        PULLED.set(0);
+        PULLED_WHILE_RUNNING.clear();
+        PAYLOADS.clear();
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectMethod(LazyCases.class.getName() + "#lazy(" + Payload.class.getName() + ")"))
+                .build());
+        
+        assertEquals(CASES + 1, summary.getTestsSucceededCount() + summary.getTestsAbortedCount());
+        assertEquals(0, summary.getTestsFailedCount());
+        for (int number = 0; number < CASES; number++) {
+            assertEquals(number + 1, (int) PULLED_WHILE_RUNNING.get(number), "pulled while case " + number + " ran");
+        }
+        assertEquals(CASES - 1, RELEASED.get(), "finished cases keep no arguments");
+    }
+    
+    @Test
+    void emptySourceIsAConfigurationError() {
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectMethod(LazyCases.class.getName() + "#empty(java.lang.String)"))
+                .build());
+        
+        assertEquals(0, summary.getTestsStartedCount());
+        assertEquals(1, summary.getTotalFailureCount());
+        assertTrue(summary.getFailures().get(0).getException().getMessage()
+                .contains("You must configure at least one set of arguments"));
+    }
+    
+    static final class Payload {
+        
+        private final int number;
+        
+        Payload(int number) {
+            this.number = number;
+        }
+        
+        @Override
+        public String toString() {
+            return "payload " + number;
+        }
+    }
+    
+    /**
+     * Provides its stream directly, {@code @MethodSource} flat-maps the stream of the method and so
+     * hands over all of its elements at once.
+     */
+    static class Payloads implements ArgumentsProvider {
+        
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return IntStream.range(0, CASES).mapToObj(number -> {
+                PULLED.incrementAndGet();
+                Payload payload = new Payload(number);
+                PAYLOADS.add(new WeakReference<>(payload));
+                return Arguments.of(payload);
+            });
+        }
+    }
+    
+    static class LazyCases {
+        
+        static Stream<String> none() {
+            return Stream.empty();
+        }
+        
+        @RetriableParameterizedTest(repeats = 2)
+        @ArgumentsSource(Payloads.class)
+        void lazy(Payload payload) throws InterruptedException {
+            if (PULLED_WHILE_RUNNING.putIfAbsent(payload.number, PULLED.get()) == null && payload.number == 0) {
+                throw new IllegalStateException("the first case is retried once");
+            }
+            if (payload.number == CASES - 1) {
+                RELEASED.set(collectedPayloads());
+            }
+        }
+        
+        @RetriableParameterizedTest(repeats = 2)
+        @MethodSource("none")
+        void empty(String value) {
+        }
+        
+        private static int collectedPayloads() throws InterruptedException {
+            int collected = 0;
+            for (int gc = 0; gc < 20 && collected < CASES - 1; gc++) {
+                System.gc();
+                Thread.sleep(10);
+                collected = (int) PAYLOADS.stream().filter(reference -> reference.get() == null).count();
+            }
+            return collected;
+        }
+    }
+}
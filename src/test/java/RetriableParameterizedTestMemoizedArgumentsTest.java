@@ -0,0 +1,101 @@
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.params.aggregator.AggregateWith;
+import org.junit.jupiter.params.aggregator.ArgumentsAccessor;
+import org.junit.jupiter.params.aggregator.ArgumentsAggregator;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.converter.SimpleArgumentConverter;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Converted and aggregated parameters of an argument set are reused by its retries unless they are mutable.
+ */
+public class RetriableParameterizedTestMemoizedArgumentsTest {
+    
+    private static final AtomicInteger CONVERSIONS = new AtomicInteger();
+    private static final AtomicInteger AGGREGATIONS = new AtomicInteger();
+    private static final Map<String, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    
+    @Test
+    void retriesReuseResolvedParameters() {
+        TestExecutionSummary summary = execute("memoized(java.lang.String, java.util.List)");
+        
+        assertEquals(2, summary.getTestsSucceededCount());
+        assertEquals(3, ATTEMPTS.get("memoized").get());
+        assertEquals(2, CONVERSIONS.get());
+        assertEquals(2, AGGREGATIONS.get());
+    }
+    
+    @Test
+    void mutableParametersAreResolvedForEveryAttempt() {
+        TestExecutionSummary summary = execute("rebuilt(java.lang.String, java.util.List)");
+        
+        assertEquals(2, summary.getTestsSucceededCount());
+        assertEquals(3, ATTEMPTS.get("rebuilt").get());
+        assertEquals(4, CONVERSIONS.get());
+        assertEquals(4, AGGREGATIONS.get());
+    }
+    
+    private static TestExecutionSummary execute(String method) {
+        CONVERSIONS.set(0);
+        AGGREGATIONS.set(0);
+        ATTEMPTS.clear();
+        return TestLauncher.execute(request()
+                .selectors(selectMethod(Cases.class.getName() + "#" + method))
+                .build());
+    }
+    
+    static class Upper extends SimpleArgumentConverter {
+        
+        @Override
+        protected Object convert(Object source, Class<?> targetType) {
+            CONVERSIONS.incrementAndGet();
+            return source.toString().toUpperCase();
+        }
+    }
+    
+    static class ToList implements ArgumentsAggregator {
+        
+        @Override
+        public Object aggregateArguments(ArgumentsAccessor accessor, ParameterContext context) {
+            AGGREGATIONS.incrementAndGet();
+            return new ArrayList<>(accessor.toList());
+        }
+    }
+    
+    static class Cases {
+        
+        /**
+         * The first argument set passes on its third attempt
+         */
+        private static void attempt(String test, String value) {
+            if (value.equals("A") && ATTEMPTS.computeIfAbsent(test, key -> new AtomicInteger()).incrementAndGet() < 3) {
+                throw new IllegalStateException("flaky");
+            }
+        }
+        
+        @RetriableParameterizedTest(repeats = 3)
+        @CsvSource({"a", "b"})
+        void memoized(@ConvertWith(Upper.class) String value, @AggregateWith(ToList.class) List<Object> all) {
+            attempt("memoized", value);
+        }
+        
+        @RetriableParameterizedTest(repeats = 3, memoizeArguments = false)
+        @CsvSource({"a", "b"})
+        void rebuilt(@ConvertWith(Upper.class) String value, @AggregateWith(ToList.class) List<Object> all) {
+            attempt("rebuilt", value);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * {@link RetriableTest} on a class retries its {@code @Test} methods while the class resources stay up.
+ */
+public class RetriableTestClassLevelTest {
+    
+    private static final AtomicInteger CLASS_SET_UPS = new AtomicInteger();
+    private static final Map<String, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    
+    @Test
+    void testMethodsOfTheClassAreRetried() {
+        CLASS_SET_UPS.set(0);
+        ATTEMPTS.clear();
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectClass(AnnotatedClass.class))
+                .build());
+        
+        assertEquals(1, CLASS_SET_UPS.get());
+        assertEquals(2, ATTEMPTS.get("flaky").get());
+        assertEquals(3, ATTEMPTS.get("broken").get());
+        assertEquals(1, ATTEMPTS.get("parameterized").get());
+        assertEquals(2, summary.getTestsFailedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+    }
+    
+    private static int attempt(String test) {
+        return ATTEMPTS.computeIfAbsent(test, key -> new AtomicInteger()).incrementAndGet();
+    }
+    
+    @RetriableTest(repeats = 3)
+    static class AnnotatedClass {
+        
+        @BeforeAll
+        static void setUpClass() {
+            CLASS_SET_UPS.incrementAndGet();
+        }
+        
+        @Test
+        void flaky() {
+            if (attempt("flaky") == 1) {
+                fail("first attempt");
+            }
+        }
+        
+        @Test
+        void broken() {
+            fail("attempt " + attempt("broken"));
+        }
+        
+        @ParameterizedTest
+        @ValueSource(strings = "a")
+        void parameterized(String value) {
+            fail("not retried " + attempt("parameterized"));
+        }
+    }
+}
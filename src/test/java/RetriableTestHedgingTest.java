@@ -0,0 +1,53 @@
+import com.github.jaqat.junit5.extension.retriable.common.Hedge;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+/**
+ * A slow first attempt is overtaken by a speculative attempt, which passes the test and cancels the slow one.
+ */
+public class RetriableTestHedgingTest {
+    
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    private static final AtomicBoolean SLOW_ATTEMPT_INTERRUPTED = new AtomicBoolean();
+    
+    @Test
+    void speculativeAttemptWinsTheRace() {
+        ATTEMPTS.set(0);
+        SLOW_ATTEMPT_INTERRUPTED.set(false);
+        long start = System.nanoTime();
+        TestExecutionSummary summary = TestLauncher.execute(TestLauncher.parallelRequest(4)
+                .selectors(selectClass(SlowFirstAttempt.class))
+                .build());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(2, ATTEMPTS.get());
+        assertTrue(SLOW_ATTEMPT_INTERRUPTED.get());
+        assertTrue(elapsed < 5_000, "Slow attempt was not cancelled: " + elapsed + " ms");
+    }
+    
+    static class SlowFirstAttempt {
+        
+        @RetriableTest(repeats = 3, hedge = @Hedge(after = 200))
+        void hedged() {
+            if (ATTEMPTS.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    SLOW_ATTEMPT_INTERRUPTED.set(true);
+                    throw new IllegalStateException("Interrupted", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+import com.github.jaqat.junit5.extension.retriable.common.AttemptEvent;
+import com.github.jaqat.junit5.extension.retriable.common.LatencyBudget;
+import com.github.jaqat.junit5.extension.retriable.common.LatencyHistogram;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListener;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListeners;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * {@link RetriableTest.Mode#LATENCY} times all repeats and checks their percentiles against the budget.
+ */
+public class RetriableTestLatencyTest {
+    
+    private static final AtomicInteger RUNS = new AtomicInteger();
+    
+    private static final List<String> DECISIONS = new CopyOnWriteArrayList<>();
+    
+    private final List<Map<String, String>> entries = new CopyOnWriteArrayList<>();
+    
+    @Test
+    void durationsWithinTheBudgetPass() {
+        TestExecutionSummary summary = execute("withinBudget");
+        
+        assertEquals(10, RUNS.get());
+        assertEquals(10, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals(1, entries.size());
+        assertEquals("10", entries.get(0).get("retriable.latency.runs"));
+        assertTrue(Double.parseDouble(entries.get(0).get("retriable.latency.p50Millis")) >= 2);
+        assertTrue(Double.parseDouble(entries.get(0).get("retriable.latency.maxMillis"))
+                >= Double.parseDouble(entries.get(0).get("retriable.latency.p99Millis")));
+    }
+    
+    @Test
+    void durationsAboveTheBudgetFail() {
+        TestExecutionSummary summary = execute("aboveBudget");
+        
+        assertEquals(5, RUNS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+        String message = summary.getFailures().get(0).getException().getMessage();
+        assertTrue(message.contains("latency budget exceeded in 5 runs: p50 "), message);
+        assertTrue(message.contains(" ms > 1.000 ms"), message);
+    }
+    
+    @Test
+    void failedRunEndsTheTest() {
+        TestExecutionSummary summary = execute("failsOnThirdRun");
+        
+        assertEquals(3, RUNS.get());
+        assertEquals(2, summary.getTestsSucceededCount());
+        assertEquals(1, summary.getTestsFailedCount());
+        assertTrue(entries.isEmpty());
+    }
+    
+    @Test
+    void passedRunsAreNotReportedAsRetries() {
+        DECISIONS.clear();
+        execute("withinBudget", request()
+                .configurationParameter(RetryListeners.LISTENERS_PROPERTY_NAME, DecisionListener.class.getName()));
+        
+        List<String> expected = new ArrayList<>(Collections.nCopies(10, "PASS"));
+        expected.add("test PASS");
+        assertEquals(expected, DECISIONS);
+    }
+    
+    @Test
+    void percentilesAreWithinTheBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+        
+        assertEquals(1000, histogram.count());
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(1_000_000, histogram.percentile(100));
+        assertTrue(Math.abs(histogram.percentile(50) - 500_000) <= 500_000 / 16, "p50 " + histogram.percentile(50));
+        assertTrue(Math.abs(histogram.percentile(99) - 990_000) <= 990_000 / 16, "p99 " + histogram.percentile(99));
+        assertTrue(histogram.percentile(50) >= 500_000, "percentiles are not underestimated");
+    }
+    
+    private TestExecutionSummary execute(String method) {
+        return execute(method, request());
+    }
+    
+    private TestExecutionSummary execute(String method, LauncherDiscoveryRequestBuilder discoveryRequest) {
+        RUNS.set(0);
+        return TestLauncher.execute(discoveryRequest
+                .selectors(selectMethod(Timed.class, method))
+                .build(), TestLauncher.reportEntries(entries));
+    }
+    
+    public static class DecisionListener implements RetryListener {
+        
+        @Override
+        public void attemptFinished(AttemptEvent event) {
+            DECISIONS.add(String.valueOf(event.decision()));
+        }
+        
+        @Override
+        public void testFinished(AttemptEvent event) {
+            DECISIONS.add("test " + event.decision());
+        }
+    }
+    
+    static class Timed {
+        
+        @RetriableTest(mode = RetriableTest.Mode.LATENCY, repeats = 10,
+                latency = @LatencyBudget(max = 10, unit = TimeUnit.SECONDS))
+        void withinBudget() throws InterruptedException {
+            RUNS.incrementAndGet();
+            Thread.sleep(2);
+        }
+        
+        @RetriableTest(mode = RetriableTest.Mode.LATENCY, repeats = 5, latency = @LatencyBudget(p50 = 1))
+        void aboveBudget() throws InterruptedException {
+            RUNS.incrementAndGet();
+            Thread.sleep(5);
+        }
+        
+        @RetriableTest(mode = RetriableTest.Mode.LATENCY, repeats = 5)
+        void failsOnThirdRun() {
+            if (RUNS.incrementAndGet() == 3) {
+                fail("broken");
+            }
+        }
+    }
+}
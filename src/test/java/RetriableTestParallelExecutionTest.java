@@ -0,0 +1,134 @@
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs a few hundred {@link RetriableTest} methods with Jupiter parallel execution enabled
+ * and checks that every method is retried according to its own annotation only.
+ */
+public class RetriableTestParallelExecutionTest {
+    
+    private static final Map<String, AtomicInteger> ATTEMPTS = new ConcurrentHashMap<>();
+    
+    private static final Class<?>[] BATCHES = {
+            Batch01.class, Batch02.class, Batch03.class, Batch04.class, Batch05.class,
+            Batch06.class, Batch07.class, Batch08.class, Batch09.class, Batch10.class,
+            Batch11.class, Batch12.class, Batch13.class, Batch14.class, Batch15.class,
+            Batch16.class, Batch17.class, Batch18.class, Batch19.class, Batch20.class,
+            Batch21.class, Batch22.class, Batch23.class, Batch24.class, Batch25.class,
+            Batch26.class, Batch27.class, Batch28.class, Batch29.class, Batch30.class,
+            Batch31.class, Batch32.class, Batch33.class, Batch34.class, Batch35.class,
+            Batch36.class, Batch37.class, Batch38.class, Batch39.class, Batch40.class
+    };
+    
+    @Test
+    void retriesOfConcurrentMethodsDoNotInterfere() {
+        ATTEMPTS.clear();
+        TestExecutionSummary summary = TestLauncher.execute(TestLauncher.parallelRequest(8)
+                .selectors(Stream.of(BATCHES).map(DiscoverySelectors::selectClass).toArray(DiscoverySelector[]::new))
+                .build());
+        
+        for (Class<?> batch : BATCHES) {
+            assertAttempts(batch, "passes", 1);
+            assertAttempts(batch, "failsOnce", 2);
+            assertAttempts(batch, "failsTwice", 3);
+            assertAttempts(batch, "alwaysFails", 4);
+            assertAttempts(batch, "failsWithNotRetriableException", 1);
+        }
+        assertEquals(2L * BATCHES.length, summary.getTestsFailedCount());
+        assertTrue(summary.getTestsSucceededCount() >= 3L * BATCHES.length);
+    }
+    
+    private static void assertAttempts(Class<?> batch, String method, int expected) {
+        AtomicInteger attempts = ATTEMPTS.get(batch.getSimpleName() + "." + method);
+        assertEquals(expected, attempts == null ? 0 : attempts.get(), batch.getSimpleName() + "." + method);
+    }
+    
+    abstract static class RetriableMethods {
+        
+        private int attempt(String method) throws InterruptedException {
+            // keep every attempt busy for a moment so that methods really overlap
+            Thread.sleep(5);
+            return ATTEMPTS.computeIfAbsent(getClass().getSimpleName() + "." + method, key -> new AtomicInteger())
+                    .incrementAndGet();
+        }
+        
+        @RetriableTest(repeats = 3)
+        void passes() throws InterruptedException {
+            attempt("passes");
+        }
+        
+        @RetriableTest(repeats = 3)
+        void failsOnce() throws InterruptedException {
+            assertTrue(attempt("failsOnce") > 1);
+        }
+        
+        @RetriableTest(repeats = 5)
+        void failsTwice() throws InterruptedException {
+            assertTrue(attempt("failsTwice") > 2);
+        }
+        
+        @RetriableTest(repeats = 4)
+        void alwaysFails() throws InterruptedException {
+            attempt("alwaysFails");
+            assertTrue(false);
+        }
+        
+        @RetriableTest(repeats = 3, exceptions = IllegalStateException.class)
+        void failsWithNotRetriableException() throws InterruptedException {
+            attempt("failsWithNotRetriableException");
+            assertTrue(false);
+        }
+    }
+    
+    static class Batch01 extends RetriableMethods {}
+    static class Batch02 extends RetriableMethods {}
+    static class Batch03 extends RetriableMethods {}
+    static class Batch04 extends RetriableMethods {}
+    static class Batch05 extends RetriableMethods {}
+    static class Batch06 extends RetriableMethods {}
+    static class Batch07 extends RetriableMethods {}
+    static class Batch08 extends RetriableMethods {}
+    static class Batch09 extends RetriableMethods {}
+    static class Batch10 extends RetriableMethods {}
+    static class Batch11 extends RetriableMethods {}
+    static class Batch12 extends RetriableMethods {}
+    static class Batch13 extends RetriableMethods {}
+    static class Batch14 extends RetriableMethods {}
+    static class Batch15 extends RetriableMethods {}
+    static class Batch16 extends RetriableMethods {}
+    static class Batch17 extends RetriableMethods {}
+    static class Batch18 extends RetriableMethods {}
+    static class Batch19 extends RetriableMethods {}
+    static class Batch20 extends RetriableMethods {}
+    static class Batch21 extends RetriableMethods {}
+    static class Batch22 extends RetriableMethods {}
+    static class Batch23 extends RetriableMethods {}
+    static class Batch24 extends RetriableMethods {}
+    static class Batch25 extends RetriableMethods {}
+    static class Batch26 extends RetriableMethods {}
+    static class Batch27 extends RetriableMethods {}
+    static class Batch28 extends RetriableMethods {}
+    static class Batch29 extends RetriableMethods {}
+    static class Batch30 extends RetriableMethods {}
+    static class Batch31 extends RetriableMethods {}
+    static class Batch32 extends RetriableMethods {}
+    static class Batch33 extends RetriableMethods {}
+    static class Batch34 extends RetriableMethods {}
+    static class Batch35 extends RetriableMethods {}
+    static class Batch36 extends RetriableMethods {}
+    static class Batch37 extends RetriableMethods {}
+    static class Batch38 extends RetriableMethods {}
+    static class Batch39 extends RetriableMethods {}
+    static class Batch40 extends RetriableMethods {}
+}
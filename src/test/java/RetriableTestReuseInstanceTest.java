@@ -0,0 +1,101 @@
+import com.github.jaqat.junit5.extension.retriable.single.BeforeRetry;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Retries of a {@link RetriableTest#reuseInstance()} test keep the test instance and its fixtures.
+ */
+public class RetriableTestReuseInstanceTest {
+    
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+    private static final AtomicInteger SET_UPS = new AtomicInteger();
+    private static final AtomicInteger TEAR_DOWNS = new AtomicInteger();
+    private static final AtomicInteger RESETS = new AtomicInteger();
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    
+    @Test
+    void retriesRunOnTheSameInstance() {
+        TestExecutionSummary summary = execute("passesOnThirdAttempt");
+        
+        assertEquals(3, ATTEMPTS.get());
+        assertEquals(1, INSTANCES.get());
+        assertEquals(1, SET_UPS.get());
+        assertEquals(1, TEAR_DOWNS.get());
+        assertEquals(2, RESETS.get());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsAbortedCount());
+    }
+    
+    @Test
+    void lastFailureFailsTheTest() {
+        TestExecutionSummary summary = execute("alwaysFails");
+        
+        assertEquals(3, ATTEMPTS.get());
+        assertEquals(1, INSTANCES.get());
+        assertEquals(1, TEAR_DOWNS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+        assertEquals("attempt 3", summary.getFailures().get(0).getException().getMessage());
+    }
+    
+    private static TestExecutionSummary execute(String method) {
+        INSTANCES.set(0);
+        SET_UPS.set(0);
+        TEAR_DOWNS.set(0);
+        RESETS.set(0);
+        ATTEMPTS.set(0);
+        return TestLauncher.execute(request()
+                .selectors(selectMethod(Fixtures.class, method))
+                .build());
+    }
+    
+    static class Fixtures {
+        
+        private boolean dirty;
+        
+        Fixtures() {
+            INSTANCES.incrementAndGet();
+        }
+        
+        @BeforeEach
+        void setUp() {
+            SET_UPS.incrementAndGet();
+        }
+        
+        @AfterEach
+        void tearDown() {
+            TEAR_DOWNS.incrementAndGet();
+        }
+        
+        @BeforeRetry
+        void reset() {
+            RESETS.incrementAndGet();
+            dirty = false;
+        }
+        
+        @RetriableTest(repeats = 3, reuseInstance = true)
+        void passesOnThirdAttempt() {
+            if (dirty) {
+                fail("not reset");
+            }
+            dirty = true;
+            if (ATTEMPTS.incrementAndGet() < 3) {
+                fail("attempt " + ATTEMPTS.get());
+            }
+        }
+        
+        @RetriableTest(repeats = 3, reuseInstance = true)
+        void alwaysFails() {
+            fail("attempt " + ATTEMPTS.incrementAndGet());
+        }
+    }
+}
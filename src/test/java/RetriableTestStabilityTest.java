@@ -0,0 +1,120 @@
+import com.github.jaqat.junit5.extension.retriable.common.AttemptEvent;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListener;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListeners;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+
+/**
+ * {@link RetriableTest.Mode#STABILITY} runs all repeats concurrently and judges the test by its pass rate.
+ */
+public class RetriableTestStabilityTest {
+    
+    private static final AtomicInteger RUNS = new AtomicInteger();
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+    
+    private static final List<String> DECISIONS = new CopyOnWriteArrayList<>();
+    
+    private final List<Map<String, String>> entries = new CopyOnWriteArrayList<>();
+    
+    @Test
+    void passRateAboveTheRequiredOnePasses() {
+        TestExecutionSummary summary = execute("threeOfFourPass");
+        
+        assertEquals(20, RUNS.get());
+        assertEquals(15, summary.getTestsSucceededCount());
+        assertEquals(5, summary.getTestsAbortedCount());
+        assertEquals(0, summary.getTestsFailedCount());
+        assertTrue(MAX_RUNNING.get() > 1, "runs overlap");
+        assertEquals(1, entries.size());
+        assertEquals("0.75", entries.get(0).get("retriable.stability.passRate"));
+        assertEquals("20", entries.get(0).get("retriable.stability.runs"));
+    }
+    
+    @Test
+    void passRateBelowTheRequiredOneFails() {
+        TestExecutionSummary summary = execute("threeOfFourPassButNinetyPercentRequired");
+        
+        assertEquals(20, RUNS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+        assertTrue(summary.getFailures().get(0).getException().getMessage()
+                .contains("15/20 passed, pass rate 0.7500"));
+    }
+    
+    @Test
+    void passedRunsAreNotReportedAsRetries() {
+        DECISIONS.clear();
+        execute("threeOfFourPass", TestLauncher.parallelRequest(4)
+                .configurationParameter(RetryListeners.LISTENERS_PROPERTY_NAME, DecisionListener.class.getName()));
+        
+        assertEquals(21, DECISIONS.size());
+        assertEquals(15, DECISIONS.stream().filter("PASS null"::equals).count(), "every passed run");
+        assertFalse(DECISIONS.contains("RETRY null"), "a passed run is no retry");
+        assertEquals(1, DECISIONS.stream().filter("test PASS"::equals).count(), "the verdict after the last run");
+    }
+    
+    private TestExecutionSummary execute(String method) {
+        return execute(method, TestLauncher.parallelRequest(4));
+    }
+    
+    private TestExecutionSummary execute(String method, LauncherDiscoveryRequestBuilder discoveryRequest) {
+        RUNS.set(0);
+        MAX_RUNNING.set(0);
+        return TestLauncher.execute(discoveryRequest
+                .selectors(selectMethod(Flaky.class, method))
+                .build(), TestLauncher.reportEntries(entries));
+    }
+    
+    public static class DecisionListener implements RetryListener {
+        
+        @Override
+        public void attemptFinished(AttemptEvent event) {
+            DECISIONS.add(event.decision() + " "
+                    + (event.exceptionClass() == null ? null : event.exceptionClass().getSimpleName()));
+        }
+        
+        @Override
+        public void testFinished(AttemptEvent event) {
+            DECISIONS.add("test " + event.decision());
+        }
+    }
+    
+    static class Flaky {
+        
+        private static void run() throws InterruptedException {
+            int running = RUNNING.incrementAndGet();
+            MAX_RUNNING.accumulateAndGet(running, Math::max);
+            try {
+                Thread.sleep(20);
+                if (RUNS.incrementAndGet() % 4 == 0) {
+                    fail("every fourth run fails");
+                }
+            } finally {
+                RUNNING.decrementAndGet();
+            }
+        }
+        
+        @RetriableTest(mode = RetriableTest.Mode.STABILITY, repeats = 20, requiredPassRate = 0.7)
+        void threeOfFourPass() throws InterruptedException {
+            run();
+        }
+        
+        @RetriableTest(mode = RetriableTest.Mode.STABILITY, repeats = 20, requiredPassRate = 0.9)
+        void threeOfFourPassButNinetyPercentRequired() throws InterruptedException {
+            run();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import com.github.jaqat.junit5.extension.retriable.common.LatencyBudget;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Warm-up attempts of a {@link RetriableTest} run first and count toward nothing.
+ */
+public class RetriableTestWarmupTest {
+    
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    
+    private final List<String> finished = new CopyOnWriteArrayList<>();
+    private final List<Map<String, String>> entries = new CopyOnWriteArrayList<>();
+    
+    @Test
+    void failedWarmupAttemptsAreNotRetriesOrFailures() {
+        TestExecutionSummary summary = execute("failsWhileCold");
+        
+        assertEquals(4, ATTEMPTS.get());
+        assertEquals(3, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals("failsWhileCold() [Warmup 1/3] ABORTED", finished.get(0));
+        assertEquals("failsWhileCold() [Warmup 3/3] ABORTED", finished.get(2));
+        assertEquals("failsWhileCold() SUCCESSFUL", finished.get(3));
+    }
+    
+    @Test
+    void warmupAttemptsAreMarkedWithConditionsDeactivated() {
+        TestExecutionSummary summary = execute("failsWhileCold", request()
+                .configurationParameter("junit.jupiter.conditions.deactivate",
+                        RetriableTest.class.getPackage().getName() + ".*"));
+        
+        assertEquals(4, ATTEMPTS.get());
+        assertEquals(3, summary.getTestsAbortedCount());
+        assertEquals(1, summary.getTestsSucceededCount());
+    }
+    
+    @Test
+    void slowWarmupAttemptsAreNotTimed() {
+        TestExecutionSummary summary = execute("slowWhileCold");
+        
+        assertEquals(7, ATTEMPTS.get());
+        assertEquals(0, summary.getTestsFailedCount());
+        assertEquals("5", entries.get(0).get("retriable.latency.runs"));
+    }
+    
+    private TestExecutionSummary execute(String method) {
+        return execute(method, request());
+    }
+    
+    private TestExecutionSummary execute(String method, LauncherDiscoveryRequestBuilder discoveryRequest) {
+        ATTEMPTS.set(0);
+        return TestLauncher.execute(discoveryRequest
+                .selectors(selectMethod(Cold.class, method))
+                .build(), TestLauncher.reportEntries(entries), new TestExecutionListener() {
+                    @Override
+                    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+                        if (testIdentifier.isTest()) {
+                            finished.add(testIdentifier.getDisplayName().trim() + " " + testExecutionResult.getStatus());
+                        }
+                    }
+                });
+    }
+    
+    static class Cold {
+        
+        @RetriableTest(repeats = 1, warmup = 3)
+        void failsWhileCold() {
+            if (ATTEMPTS.incrementAndGet() <= 3) {
+                fail("cold");
+            }
+        }
+        
+        @RetriableTest(mode = RetriableTest.Mode.LATENCY, repeats = 5, warmup = 2,
+                latency = @LatencyBudget(max = 40))
+        void slowWhileCold() throws InterruptedException {
+            if (ATTEMPTS.incrementAndGet() <= 2) {
+                Thread.sleep(100);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import com.github.jaqat.junit5.extension.retriable.common.RetryBudget;
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Failing tests stop retrying as soon as the suite-wide {@link RetryBudget} is used up.
+ */
+public class RetryBudgetTest {
+    
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    private static CountDownLatch runsStarted;
+    
+    @Test
+    void maxRetriesAreSharedByAllTests() {
+        TestExecutionSummary summary = execute(RetryBudget.MAX_RETRIES_PROPERTY_NAME, "3");
+        
+        assertEquals(4 + 3, ATTEMPTS.get());
+        assertEquals(4, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void ratioAllowsRetriesPerFirstAttempt() {
+        TestExecutionSummary summary = execute(RetryBudget.RATIO_PROPERTY_NAME, "0.5");
+        
+        // the first attempt of the first test earns half a retry only
+        assertEquals(4 + 2, ATTEMPTS.get());
+        assertEquals(4, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void concurrentRunsEarnTheRatioOnce() {
+        ATTEMPTS.set(0);
+        runsStarted = new CountDownLatch(4);
+        TestExecutionSummary summary = TestLauncher.execute(TestLauncher.parallelRequest(8)
+                .selectors(selectMethod(Concurrent.class, "stable"), selectMethod(Concurrent.class, "failing"))
+                .configurationParameter(RetryBudget.RATIO_PROPERTY_NAME, "0.5")
+                .build());
+        
+        // half a retry for the stability test and half for the first attempt of the failing one
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+    }
+    
+    private static TestExecutionSummary execute(String parameter, String value) {
+        ATTEMPTS.set(0);
+        return TestLauncher.execute(request()
+                .selectors(selectClass(AlwaysFailing.class))
+                .configurationParameter(parameter, value)
+                .build());
+    }
+    
+    static class Concurrent {
+        
+        private static void awaitRuns() throws InterruptedException {
+            assertTrue(runsStarted.await(5, TimeUnit.SECONDS), "all runs started");
+        }
+        
+        @RetriableTest(mode = RetriableTest.Mode.STABILITY, repeats = 4)
+        void stable() throws InterruptedException {
+            // no run is recorded before all of them started
+            runsStarted.countDown();
+            awaitRuns();
+        }
+        
+        @RetriableTest(repeats = 5)
+        void failing() throws InterruptedException {
+            awaitRuns();
+            ATTEMPTS.incrementAndGet();
+            fail("always");
+        }
+    }
+    
+    static class AlwaysFailing {
+        
+        @RetriableTest(repeats = 5)
+        void first() {
+            ATTEMPTS.incrementAndGet();
+            fail("always");
+        }
+        
+        @RetriableTest(repeats = 5)
+        void second() {
+            ATTEMPTS.incrementAndGet();
+            fail("always");
+        }
+        
+        @RetriableParameterizedTest(repeats = 5)
+        @ValueSource(strings = {"a", "b"})
+        void parameterized(String value) {
+            ATTEMPTS.incrementAndGet();
+            fail(value);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import com.github.jaqat.junit5.extension.retriable.common.AttemptEvent;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListener;
+import com.github.jaqat.junit5.extension.retriable.common.RetryListeners;
+import com.github.jaqat.junit5.extension.retriable.parametrized.RetriableParameterizedTest;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * A {@link RetryListener} configured by class name sees every attempt with its decision and the verdict of the test.
+ */
+public class RetryListenerTest {
+    
+    private static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+    private static int flakyAttempts;
+    
+    @Test
+    void flakyTestIsRetriedAndPasses() {
+        execute("flaky", "");
+        
+        assertEquals(Arrays.asList(
+                "started 1/3",
+                "finished 1/3 RETRY AssertionFailedError",
+                "started 2/3",
+                "finished 2/3 PASS null",
+                "test PASS"), EVENTS);
+    }
+    
+    @Test
+    void failingParameterizedCaseFailsFinally() {
+        execute("failing", "java.lang.String");
+        
+        assertEquals(Arrays.asList(
+                "started 1/2",
+                "finished 1/2 RETRY AssertionFailedError",
+                "started 2/2",
+                "finished 2/2 FINAL_FAIL AssertionFailedError",
+                "test FINAL_FAIL"), EVENTS);
+    }
+    
+    private static void execute(String method, String parameterTypes) {
+        EVENTS.clear();
+        flakyAttempts = 0;
+        TestLauncher.execute(request()
+                .selectors(selectMethod(Tests.class, method, parameterTypes))
+                .configurationParameter(RetryListeners.LISTENERS_PROPERTY_NAME, RecordingListener.class.getName())
+                .build());
+    }
+    
+    public static class RecordingListener implements RetryListener {
+        
+        @Override
+        public void attemptStarted(AttemptEvent event) {
+            EVENTS.add("started " + event.attempt() + "/" + event.maxAttempts());
+        }
+        
+        @Override
+        public void attemptFinished(AttemptEvent event) {
+            assertTrue(event.durationNanos() > 0);
+            EVENTS.add("finished " + event.attempt() + "/" + event.maxAttempts() + " " + event.decision() + " "
+                    + (event.exceptionClass() == null ? null : event.exceptionClass().getSimpleName()));
+        }
+        
+        @Override
+        public void testFinished(AttemptEvent event) {
+            EVENTS.add("test " + event.decision());
+        }
+    }
+    
+    static class Tests {
+        
+        @RetriableTest(repeats = 3)
+        void flaky() {
+            if (++flakyAttempts == 1) {
+                fail("flaky");
+            }
+        }
+        
+        @RetriableParameterizedTest(repeats = 2)
+        @ValueSource(strings = "value")
+        void failing(String value) {
+            fail(value);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import com.github.jaqat.junit5.extension.retriable.common.RetryMetrics;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Retry metrics are written at the end of the run and every test reports its own summary.
+ */
+public class RetryMetricsTest {
+    
+    private static int flakyAttempts;
+    
+    @Test
+    void metricsAreWrittenAtTheEndOfTheRun() throws Exception {
+        Path directory = Files.createTempDirectory("retriable-metrics");
+        List<Map<String, String>> reportEntries = new CopyOnWriteArrayList<>();
+        flakyAttempts = 0;
+        TestLauncher.execute(request()
+                .selectors(selectClass(Tests.class))
+                .configurationParameter(RetryMetrics.DIRECTORY_PROPERTY_NAME, directory.toString())
+                .build(), TestLauncher.reportEntries(reportEntries));
+        
+        String prometheus = new String(Files.readAllBytes(directory.resolve(RetryMetrics.PROMETHEUS_FILE)),
+                StandardCharsets.UTF_8);
+        assertTrue(prometheus.contains("\nretriable_attempts_total 5\n"), prometheus);
+        assertTrue(prometheus.contains("\nretriable_retries_total 3\n"), prometheus);
+        assertTrue(prometheus.contains("\nretriable_tests_total{verdict=\"pass\"} 1\n"), prometheus);
+        assertTrue(prometheus.contains("\nretriable_tests_total{verdict=\"final_fail\"} 1\n"), prometheus);
+        assertTrue(prometheus.contains("\nretriable_flaky_tests_total 1\n"), prometheus);
+        assertTrue(prometheus.contains(
+                "\nretriable_failures_total{exception=\"org.opentest4j.AssertionFailedError\"} 4\n"), prometheus);
+        assertTrue(prometheus.contains("\nretriable_attempt_duration_seconds_bucket{le=\"+Inf\"} 5\n"), prometheus);
+        String json = new String(Files.readAllBytes(directory.resolve(RetryMetrics.JSON_FILE)), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"attempts\": 5,"), json);
+        
+        assertEquals(2, reportEntries.size());
+        assertTrue(reportEntries.stream().anyMatch(entry -> "2".equals(entry.get("retriable.attempts"))
+                && "pass".equals(entry.get("retriable.verdict"))));
+        assertTrue(reportEntries.stream().anyMatch(entry -> "3".equals(entry.get("retriable.attempts"))
+                && "final_fail".equals(entry.get("retriable.verdict"))));
+        
+        Files.delete(directory.resolve(RetryMetrics.PROMETHEUS_FILE));
+        Files.delete(directory.resolve(RetryMetrics.JSON_FILE));
+        Files.delete(directory);
+    }
+    
+    static class Tests {
+        
+        @RetriableTest(repeats = 3)
+        void flaky() {
+            if (++flakyAttempts == 1) {
+                fail("flaky");
+            }
+        }
+        
+        @RetriableTest(repeats = 3)
+        void failing() {
+            fail("failing");
+        }
+    }
+}
@@ -0,0 +1,238 @@
+import com.github.jaqat.junit5.extension.retriable.common.Hedge;
+import com.github.jaqat.junit5.extension.retriable.common.RetryPolicy;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableException;
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.commons.util.PreconditionViolationException;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.opentest4j.TestAbortedException;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * {@link RetryPolicy} is read from the annotation once per method, validated and cached per declaring class.
+ */
+public class RetryPolicyTest {
+    
+    private static final AtomicInteger ATTEMPTS = new AtomicInteger();
+    
+    @Test
+    void minSuccessNeedsFurtherPassingAttemptsAfterAFailure() {
+        ATTEMPTS.set(0);
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectMethod(MinSuccess.class, "twoOfFour"))
+                .build());
+        
+        assertEquals(3, ATTEMPTS.get());
+        assertEquals(2, summary.getTestsSucceededCount());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void minSuccessFailsIfTooFewAttemptsAreLeft() {
+        ATTEMPTS.set(0);
+        TestExecutionSummary summary = TestLauncher.execute(request()
+                .selectors(selectMethod(MinSuccess.class, "threeOfFourButFailsTwice"))
+                .build());
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void policyIsCachedPerMethod() throws NoSuchMethodException {
+        Method twoOfFour = MinSuccess.class.getDeclaredMethod("twoOfFour");
+        RetryPolicy policy = RetryPolicy.forMethod(twoOfFour);
+        
+        assertSame(policy, RetryPolicy.forMethod(twoOfFour));
+        assertSame(policy, RetryPolicy.forMethod(MinSuccess.class.getDeclaredMethod("twoOfFour")));
+        assertNotSame(policy, RetryPolicy.forMethod(MinSuccess.class.getDeclaredMethod("threeOfFourButFailsTwice")));
+        assertEquals(4, policy.repeats());
+        assertEquals(2, policy.minSuccess());
+        assertSame(RetryPolicy.forClass(RetriableClass.class).get(), RetryPolicy.forClass(RetriableClass.class).get());
+        assertFalse(RetryPolicy.forClass(MinSuccess.class).isPresent());
+    }
+    
+    @Test
+    void invalidAnnotationsAreRejected() {
+        assertViolation("Total repeats must be higher than 0", "noRepeats");
+        assertViolation("Total minimum success must be higher or equals than 1", "noMinSuccess");
+        assertViolation("Configuration error: @RetriableTest must be declared with a non-empty name.", "blankName");
+        assertViolation("Required pass rate must be between 0 and 1", "passRateAboveOne");
+    }
+    
+    @Test
+    void invalidClassAnnotationsAreRejected() {
+        assertClassViolation("Configuration error: @RetriableTest on class [" + BlankNameClass.class.getName()
+                + "] must be declared with a non-empty name.", BlankNameClass.class);
+        assertClassViolation("Configuration error: @RetriableTest(mode = STABILITY) on class ["
+                + StabilityClass.class.getName() + "] is not supported, declare it on the test method instead.",
+                StabilityClass.class);
+        assertClassViolation("Configuration error: @RetriableTest(hedge = ...) on class ["
+                + HedgedClass.class.getName() + "] is not supported, declare it on the test method instead.",
+                HedgedClass.class);
+    }
+    
+    @Test
+    void invalidBuildersAreRejected() {
+        assertEquals("Total repeats must not be lower than minimum success", assertThrows(
+                PreconditionViolationException.class, () -> RetryPolicy.builder(2).minSuccess(3).build()).getMessage());
+        assertEquals("Total minimum success must be higher or equals than 1", assertThrows(
+                PreconditionViolationException.class, () -> RetryPolicy.builder(2).minSuccess(0).build()).getMessage());
+        assertEquals("Total repeats must not be lower than minimum success", assertThrows(
+                PreconditionViolationException.class, () -> RetryPolicy.builder(3).minSuccess(2).build().withRepeats(1))
+                .getMessage());
+    }
+    
+    @Test
+    void subclassesOfListedExceptionsAreRepeatable() {
+        RetryPolicy policy = RetryPolicy.builder(3).exceptions(IOException.class).build();
+        
+        assertTrue(policy.isRepeatable(new IOException()));
+        assertTrue(policy.isRepeatable(new FileNotFoundException()));
+        assertTrue(policy.isRepeatable(new TestAbortedException()), "aborted attempts are always retried");
+        assertFalse(policy.isRepeatable(new IllegalStateException()));
+        assertFalse(policy.isRepeatable(new UncheckedIOException(new IOException())), "causes are not inspected");
+    }
+    
+    @Test
+    void cachedVerdictsDoNotLeakIntoOtherPolicies() {
+        RetryPolicy ioPolicy = RetryPolicy.builder(3).exceptions(IOException.class).build();
+        RetryPolicy statePolicy = RetryPolicy.builder(3).exceptions(IllegalStateException.class).build();
+        
+        assertTrue(ioPolicy.isRepeatable(new IOException()));
+        assertFalse(ioPolicy.isRepeatable(new IllegalStateException()));
+        assertFalse(statePolicy.isRepeatable(new IOException()));
+        assertTrue(statePolicy.isRepeatable(new IllegalStateException()));
+        assertTrue(ioPolicy.isRepeatable(new IOException()), "each policy keeps its own verdicts");
+        assertFalse(ioPolicy.isRepeatable(new IllegalStateException()), "each policy keeps its own verdicts");
+    }
+    
+    @Test
+    void subclassOfAListedExceptionIsRetried() {
+        TestExecutionSummary summary = executeExceptions("subclassOfListed");
+        
+        assertEquals(2, ATTEMPTS.get());
+        assertEquals(0, summary.getTestsFailedCount());
+    }
+    
+    @Test
+    void unlistedExceptionFailsAtOnce() {
+        TestExecutionSummary summary = executeExceptions("unlisted");
+        
+        assertEquals(1, ATTEMPTS.get());
+        assertEquals(1, summary.getTestsFailedCount());
+        assertEquals(IllegalStateException.class, summary.getFailures().get(0).getException().getClass());
+    }
+    
+    @Test
+    void retriableExceptionIsNotCountedAsAFailure() {
+        RetryPolicy policy = RetryPolicy.builder(3).build();
+        
+        assertTrue(policy.isRepeatable(new RetriableException("repeatable like any other exception")));
+        assertFalse(policy.isFailure(new RetriableException("but not a failed attempt")));
+        assertTrue(policy.isFailure(new IllegalStateException()));
+        assertFalse(policy.isFailure(null), "a passed attempt");
+        assertFalse(RetryPolicy.builder(3).exceptions(IOException.class).build().isFailure(new IllegalStateException()),
+                "an unlisted exception ends the test without counting as a failed attempt");
+    }
+    
+    private static TestExecutionSummary executeExceptions(String method) {
+        ATTEMPTS.set(0);
+        return TestLauncher.execute(request()
+                .selectors(selectMethod(Exceptions.class, method))
+                .build());
+    }
+    
+    private static void assertViolation(String message, String method) {
+        assertEquals(message, assertThrows(PreconditionViolationException.class,
+                () -> RetryPolicy.forMethod(Invalid.class.getDeclaredMethod(method))).getMessage());
+    }
+    
+    private static void assertClassViolation(String message, Class<?> testClass) {
+        assertEquals(message, assertThrows(PreconditionViolationException.class,
+                () -> RetryPolicy.forClass(testClass)).getMessage());
+    }
+    
+    static class MinSuccess {
+        
+        @RetriableTest(repeats = 4, minSuccess = 2)
+        void twoOfFour() {
+            if (ATTEMPTS.incrementAndGet() == 1) {
+                fail("first attempt fails");
+            }
+        }
+        
+        @RetriableTest(repeats = 4, minSuccess = 3)
+        void threeOfFourButFailsTwice() {
+            if (ATTEMPTS.incrementAndGet() <= 2) {
+                fail("first attempts fail");
+            }
+        }
+    }
+    
+    static class Exceptions {
+        
+        @RetriableTest(repeats = 3, exceptions = IOException.class)
+        void subclassOfListed() throws IOException {
+            if (ATTEMPTS.incrementAndGet() == 1) {
+                throw new FileNotFoundException("first attempt");
+            }
+        }
+        
+        @RetriableTest(repeats = 3, exceptions = IOException.class)
+        void unlisted() {
+            ATTEMPTS.incrementAndGet();
+            throw new IllegalStateException("not retried");
+        }
+    }
+    
+    @RetriableTest(repeats = 2)
+    static class RetriableClass {
+    }
+    
+    @RetriableTest(repeats = 2, name = " ")
+    static class BlankNameClass {
+    }
+    
+    @RetriableTest(repeats = 2, mode = RetriableTest.Mode.STABILITY)
+    static class StabilityClass {
+    }
+    
+    @RetriableTest(repeats = 2, hedge = @Hedge(attempts = 2))
+    static class HedgedClass {
+    }
+    
+    static class Invalid {
+        
+        @RetriableTest(repeats = 0)
+        void noRepeats() {
+        }
+        
+        @RetriableTest(repeats = 2, minSuccess = 0)
+        void noMinSuccess() {
+        }
+        
+        @RetriableTest(repeats = 2, name = " ")
+        void blankName() {
+        }
+        
+        @RetriableTest(repeats = 2, mode = RetriableTest.Mode.STABILITY, requiredPassRate = 1.5)
+        void passRateAboveOne() {
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import org.junit.platform.engine.reporting.ReportEntry;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Runs the nested fixture classes of the tests through the JUnit Platform launcher.
+ */
+final class TestLauncher {
+    
+    private TestLauncher() {
+    }
+    
+    /**
+     * Executes the request and returns its summary, the given listeners observe the same execution.
+     */
+    static TestExecutionSummary execute(LauncherDiscoveryRequest discoveryRequest, TestExecutionListener... listeners) {
+        SummaryGeneratingListener summary = new SummaryGeneratingListener();
+        TestExecutionListener[] all = new TestExecutionListener[listeners.length + 1];
+        all[0] = summary;
+        System.arraycopy(listeners, 0, all, 1, listeners.length);
+        LauncherFactory.create().execute(discoveryRequest, all);
+        return summary.getSummary();
+    }
+    
+    /**
+     * A request with Jupiter parallel execution enabled at a fixed parallelism.
+     */
+    static LauncherDiscoveryRequestBuilder parallelRequest(int parallelism) {
+        return request()
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism",
+                        String.valueOf(parallelism));
+    }
+    
+    /**
+     * A listener collecting the key-value pairs of every published report entry.
+     */
+    static TestExecutionListener reportEntries(Collection<Map<String, String>> entries) {
+        return new TestExecutionListener() {
+            @Override
+            public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {
+                entries.add(entry.getKeyValuePairs());
+            }
+        };
+    }
+}
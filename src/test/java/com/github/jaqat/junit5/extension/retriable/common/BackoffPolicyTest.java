@@ -0,0 +1,139 @@
+package com.github.jaqat.junit5.extension.retriable.common;
+
+import com.github.jaqat.junit5.extension.retriable.single.RetriableTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delays of the {@link Backoff.Strategy strategies} and the load-aware wait of {@link BackoffPolicy}.
+ */
+public class BackoffPolicyTest {
+    
+    @Test
+    void noneIsShared() {
+        assertSame(BackoffPolicy.NONE, backoff("none"));
+        assertFalse(backoff("none").isEnabled());
+        assertEquals(0, backoff("none").delayMillis(3, 0));
+    }
+    
+    @Test
+    void fixedDelayNeverChanges() {
+        BackoffPolicy backoff = backoff("fixed");
+        
+        assertTrue(backoff.isEnabled());
+        for (int retry = 1; retry <= 10; retry++) {
+            assertEquals(50, backoff.delayMillis(retry, retry * 50L));
+        }
+    }
+    
+    @Test
+    void exponentialDelayIsCappedAtMaxDelay() {
+        BackoffPolicy backoff = backoff("exponential");
+        
+        assertEquals(10, backoff.delayMillis(1, 0));
+        assertEquals(30, backoff.delayMillis(2, 10));
+        assertEquals(90, backoff.delayMillis(3, 30));
+        assertEquals(270, backoff.delayMillis(4, 90));
+        assertEquals(500, backoff.delayMillis(5, 270));
+        assertEquals(500, backoff.delayMillis(40, 500));
+    }
+    
+    @Test
+    void decorrelatedJitterStaysWithinItsBounds() {
+        BackoffPolicy backoff = backoff("decorrelatedJitter");
+        
+        assertEquals(20, backoff.delayMillis(1, 0), "no previous delay to grow from");
+        long previous = 0;
+        for (int retry = 1; retry <= 1000; retry++) {
+            long delay = backoff.delayMillis(retry, previous);
+            assertTrue(delay >= 20, "at least the base delay, was " + delay);
+            assertTrue(delay <= Math.min(200, Math.max(20, previous * 3)), "at most three times " + previous + ", was " + delay);
+            previous = delay;
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(backoff.delayMillis(7, 200) <= 200, "capped at maxDelay");
+        }
+    }
+    
+    @Test
+    void awaitsTheDelay() {
+        long start = System.nanoTime();
+        backoff("fixed").await(50);
+        
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+    
+    @Test
+    void waitsWhileTheLoadIsTooHigh() throws InterruptedException {
+        AtomicInteger checks = new AtomicInteger();
+        BackoffPolicy backoff = backoff("loadAware").withLoadAverage(() -> checks.incrementAndGet() <= 3 ? 8 : 1);
+        CountDownLatch due = new CountDownLatch(1);
+        long start = System.nanoTime();
+        backoff.schedule(0, due::countDown);
+        
+        assertTrue(due.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200, "polled until the load dropped");
+        assertEquals(4, checks.get());
+    }
+    
+    @Test
+    void loadWaitIsBoundedByMaxDelay() throws InterruptedException {
+        BackoffPolicy backoff = backoff("loadAware").withLoadAverage(() -> 8);
+        CountDownLatch due = new CountDownLatch(1);
+        long start = System.nanoTime();
+        backoff.schedule(0, due::countDown);
+        
+        assertTrue(due.await(5, TimeUnit.SECONDS));
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(waited >= 300 && waited < 2000, "gave up after maxDelay, waited " + waited);
+    }
+    
+    @Test
+    void unknownLoadDoesNotDelay() {
+        AtomicInteger ran = new AtomicInteger();
+        backoff("loadAware").withLoadAverage(() -> -1).schedule(0, ran::incrementAndGet);
+        
+        assertEquals(1, ran.get(), "ran on the calling thread");
+    }
+    
+    private static BackoffPolicy backoff(String method) {
+        try {
+            return BackoffPolicy.of(Backoffs.class.getDeclaredMethod(method).getAnnotation(RetriableTest.class).backoff());
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    static class Backoffs {
+        
+        @RetriableTest(repeats = 2)
+        void none() {
+        }
+        
+        @RetriableTest(repeats = 2, backoff = @Backoff(strategy = Backoff.Strategy.FIXED, delay = 50))
+        void fixed() {
+        }
+        
+        @RetriableTest(repeats = 2, backoff = @Backoff(strategy = Backoff.Strategy.EXPONENTIAL, delay = 10,
+                multiplier = 3, maxDelay = 500))
+        void exponential() {
+        }
+        
+        @RetriableTest(repeats = 2, backoff = @Backoff(strategy = Backoff.Strategy.DECORRELATED_JITTER, delay = 20,
+                maxDelay = 200))
+        void decorrelatedJitter() {
+        }
+        
+        @RetriableTest(repeats = 2, backoff = @Backoff(maxLoadAverage = 2, maxDelay = 300))
+        void loadAware() {
+        }
+    }
+}